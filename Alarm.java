@@ -1,16 +1,28 @@
 package com.alarmclock.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
 @Entity
+@Table(indexes = @Index(name = "idx_alarm_active_minute", columnList = "active, minute_of_day"))
 @Data
 public class Alarm {
+    // Sequence ids let Hibernate batch inserts; IDENTITY needs a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alarm_seq")
+    @SequenceGenerator(name = "alarm_seq", sequenceName = "alarm_seq", allocationSize = 500)
     private Long id;
     
     private String time;
@@ -19,4 +31,31 @@ public class Alarm {
     private boolean repeat;
     private int snooze;
     private boolean active;
-} 
\ No newline at end of file
+
+    // Derived from time on every save; null when time can't be parsed
+    @Column(name = "minute_of_day")
+    private Integer minuteOfDay;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeTime() {
+        minuteOfDay = toMinuteOfDay(time);
+    }
+
+    // Accepts "HH:mm", "H:mm" and "HH:mm:ss"
+    public static Integer toMinuteOfDay(String time) {
+        if (time == null) {
+            return null;
+        }
+        String trimmed = time.trim();
+        if (trimmed.length() == 4 && trimmed.charAt(1) == ':') {
+            trimmed = "0" + trimmed;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(trimmed);
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
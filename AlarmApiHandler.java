@@ -0,0 +1,218 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The /api/alarms endpoints app.js uses, served by AlarmClockServer without
+ * Spring: GET lists all alarms, GET /{id} returns one, POST creates, PUT
+ * /{id} replaces and DELETE /{id} removes. Alarms stay in memory and each
+ * change is appended to AlarmDataManager's journal, so reads never touch
+ * the disk.
+ */
+public class AlarmApiHandler implements HttpHandler {
+    public static final String PATH = "/api/alarms";
+
+    // Guarded by this; items are replaced on update, never modified in place
+    private final Map<Long, AlarmItem> alarms = new LinkedHashMap<>();
+
+    public AlarmApiHandler() {
+        for (AlarmItem alarm : AlarmDataManager.loadAlarms()) {
+            alarms.put(alarm.getId(), alarm);
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String rest = exchange.getRequestURI().getPath().substring(PATH.length());
+            if (rest.endsWith("/")) {
+                rest = rest.substring(0, rest.length() - 1);
+            }
+            Long id = null;
+            if (!rest.isEmpty()) {
+                try {
+                    id = rest.startsWith("/") ? Long.valueOf(rest.substring(1)) : null;
+                } catch (NumberFormatException e) {
+                    // Falls through to 404
+                }
+                if (id == null) {
+                    sendError(exchange, 404, "No such resource");
+                    return;
+                }
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    if (id == null) {
+                        list(exchange);
+                    } else {
+                        get(exchange, id);
+                    }
+                    break;
+                case "POST":
+                    if (id != null) {
+                        methodNotAllowed(exchange, "GET, PUT, DELETE");
+                    } else {
+                        create(exchange);
+                    }
+                    break;
+                case "PUT":
+                    if (id == null) {
+                        methodNotAllowed(exchange, "GET, POST");
+                    } else {
+                        update(exchange, id);
+                    }
+                    break;
+                case "DELETE":
+                    if (id == null) {
+                        methodNotAllowed(exchange, "GET, POST");
+                    } else {
+                        delete(exchange, id);
+                    }
+                    break;
+                default:
+                    methodNotAllowed(exchange, id == null ? "GET, POST" : "GET, PUT, DELETE");
+                    break;
+            }
+        } catch (AlarmJson.JsonException e) {
+            sendError(exchange, 400, "Invalid alarm: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, "Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Last resort, so a bug answers 500 instead of resetting the connection; Errors propagate
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        List<AlarmItem> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(alarms.values());
+        }
+        try (Writer out = openJson(exchange, 200)) {
+            AlarmJson.writeAlarms(out, snapshot);
+        }
+    }
+
+    private void get(HttpExchange exchange, long id) throws IOException {
+        AlarmItem alarm;
+        synchronized (this) {
+            alarm = alarms.get(id);
+        }
+        if (alarm == null) {
+            sendError(exchange, 404, "Alarm " + id + " not found");
+            return;
+        }
+        sendAlarm(exchange, 200, alarm);
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        AlarmItem alarm = readAlarm(exchange);
+        alarm.setId(0);
+        synchronized (this) {
+            if (!AlarmDataManager.recordAdd(alarm)) {
+                throw new IOException("Alarm could not be saved");
+            }
+            alarms.put(alarm.getId(), alarm);
+        }
+        exchange.getResponseHeaders().set("Location", PATH + "/" + alarm.getId());
+        sendAlarm(exchange, 201, alarm);
+    }
+
+    private void update(HttpExchange exchange, long id) throws IOException {
+        AlarmItem alarm = readAlarm(exchange);
+        alarm.setId(id);
+        synchronized (this) {
+            if (!alarms.containsKey(id)) {
+                alarm = null;
+            } else if (!AlarmDataManager.recordUpdate(alarm)) {
+                throw new IOException("Alarm could not be saved");
+            } else {
+                alarms.put(id, alarm);
+            }
+        }
+        if (alarm == null) {
+            sendError(exchange, 404, "Alarm " + id + " not found");
+            return;
+        }
+        sendAlarm(exchange, 200, alarm);
+    }
+
+    private void delete(HttpExchange exchange, long id) throws IOException {
+        AlarmItem removed;
+        synchronized (this) {
+            removed = alarms.get(id);
+            if (removed != null) {
+                if (!AlarmDataManager.recordRemove(removed)) {
+                    throw new IOException("Alarm could not be removed");
+                }
+                alarms.remove(id);
+            }
+        }
+        if (removed == null) {
+            sendError(exchange, 404, "Alarm " + id + " not found");
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private static AlarmItem readAlarm(HttpExchange exchange) throws IOException {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            return AlarmJson.readAlarm(in);
+        }
+    }
+
+    private static void sendAlarm(HttpExchange exchange, int status, AlarmItem alarm) throws IOException {
+        try (Writer out = openJson(exchange, status)) {
+            AlarmJson.writeAlarm(out, alarm);
+        }
+    }
+
+    // Chunked, so large lists stream out without being sized first
+    private static Writer openJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allow) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allow);
+        sendError(exchange, 405, "Method not allowed");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            // Headers already went out; nothing more can be reported
+            return;
+        }
+        StringWriter body = new StringWriter();
+        body.write("{\"error\":");
+        AlarmJson.writeString(body, message);
+        body.write('}');
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,306 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Versioned binary snapshot of alarms.
+ *
+ * Layout (big-endian):
+ *   header  magic "ALRM", version u16, record size u16, record count u32,
+ *           string count u32, string table offset u64
+ *   records fixed 24 bytes each: id i64, minute of day u16, snooze u16,
+ *           flags u8, 3 reserved, message index i32, sound index i32
+ *   strings count x (byte length u32, UTF-8 bytes), shared by all records
+ *
+ * A corrupt header or string table fails the whole snapshot with an
+ * IOException. Records are fixed width, so a record with an out-of-range
+ * minute or string index is skipped and logged instead.
+ */
+public class AlarmBinaryFormat {
+    public static final int MAGIC = 0x414C524D; // "ALRM"
+    public static final short VERSION = 1;
+
+    static final int HEADER_BYTES = 24;
+    static final int RECORD_BYTES = 24;
+    static final int FLAG_REPEAT = 1;
+    static final int FLAG_ENABLED = 1 << 1;
+
+    // Smaller snapshots are cheaper to read onto the heap than to map
+    private static final long MAP_THRESHOLD_BYTES = 1 << 20;
+
+    public static boolean isBinarySnapshot(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Writes {@code alarms} as a snapshot. Alarms whose time cannot be read as
+     * a minute of day, e.g. from an old serialized snapshot, are logged and
+     * left out.
+     */
+    public static void write(File file, List<AlarmItem> alarms) throws IOException {
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        // The record count goes in the header, so find the alarms to skip first
+        int[] minutes = new int[alarms.size()];
+        int count = 0;
+        for (int i = 0; i < minutes.length; i++) {
+            AlarmItem alarm = alarms.get(i);
+            try {
+                minutes[i] = alarm.getMinuteOfDay();
+                count++;
+            } catch (IllegalArgumentException e) {
+                minutes[i] = -1;
+                System.err.println("Skipping alarm " + alarm.getId() + ": " + e.getMessage());
+            }
+        }
+
+        FileOutputStream fileOut = new FileOutputStream(file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+            long stringTableOffset = HEADER_BYTES + (long) count * RECORD_BYTES;
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(RECORD_BYTES);
+            out.writeInt(count);
+            // String count is only known after the records, so intern first
+            for (int i = 0; i < minutes.length; i++) {
+                if (minutes[i] >= 0) {
+                    intern(alarms.get(i).getMessage(), stringIndexes, strings);
+                    intern(alarms.get(i).getSoundType(), stringIndexes, strings);
+                }
+            }
+            out.writeInt(strings.size());
+            out.writeLong(stringTableOffset);
+
+            for (int i = 0; i < minutes.length; i++) {
+                if (minutes[i] < 0) {
+                    continue;
+                }
+                AlarmItem alarm = alarms.get(i);
+                int flags = (alarm.isRepeatDaily() ? FLAG_REPEAT : 0) | (alarm.isEnabled() ? FLAG_ENABLED : 0);
+                out.writeLong(alarm.getId());
+                out.writeShort(minutes[i]);
+                out.writeShort(alarm.getSnooze());
+                out.writeByte(flags);
+                out.writeByte(0);
+                out.writeShort(0);
+                out.writeInt(indexOf(alarm.getMessage(), stringIndexes));
+                out.writeInt(indexOf(alarm.getSoundType(), stringIndexes));
+            }
+
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            // Callers rename the file over the live snapshot, so it must be durable first
+            out.flush();
+            fileOut.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Opens a snapshot without decoding its records. Large files are memory
+     * mapped; records are decoded one at a time as they are requested.
+     */
+    public static Snapshot open(File file) throws IOException {
+        return open(file, MAP_THRESHOLD_BYTES);
+    }
+
+    /**
+     * Like {@link #open(File)}, but always reads the file onto the heap. For
+     * snapshots kept while the file is replaced, which Windows refuses for a
+     * mapped file.
+     */
+    public static Snapshot read(File file) throws IOException {
+        return open(file, Long.MAX_VALUE);
+    }
+
+    private static Snapshot open(File file, long mapThresholdBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+            if (size >= mapThresholdBytes) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading
+                }
+                buffer.flip();
+            }
+            return new Snapshot(buffer);
+        }
+    }
+
+    private static void intern(String s, Map<String, Integer> indexes, List<String> strings) {
+        if (s != null && !indexes.containsKey(s)) {
+            indexes.put(s, strings.size());
+            strings.add(s);
+        }
+    }
+
+    private static int indexOf(String s, Map<String, Integer> indexes) {
+        return s == null ? -1 : indexes.get(s);
+    }
+
+    public static class Snapshot extends AbstractList<AlarmItem> implements RandomAccess {
+        private final ByteBuffer buffer;
+        private final int recordCount;
+        private final int recordBytes;
+        private final String[] strings;
+        // Records left after skipping corrupt ones; null when none were skipped
+        private final int[] records;
+
+        Snapshot(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an alarm snapshot");
+            }
+            int version = buffer.getShort(4);
+            if (version > VERSION) {
+                throw new IOException("Unsupported alarm snapshot version " + version);
+            }
+            this.recordBytes = buffer.getShort(6) & 0xFFFF;
+            this.recordCount = buffer.getInt(8);
+            int stringCount = buffer.getInt(12);
+            long stringTableOffset = buffer.getLong(16);
+            if (recordBytes < RECORD_BYTES || recordCount < 0 || stringCount < 0
+                    || stringTableOffset != HEADER_BYTES + (long) recordCount * recordBytes
+                    || stringTableOffset > buffer.limit()
+                    // Each string takes at least its length
+                    || stringCount > (buffer.limit() - stringTableOffset) / 4) {
+                throw new IOException("Corrupt alarm snapshot header");
+            }
+
+            // The string table is interned, so it stays small next to the records
+            this.strings = new String[stringCount];
+            int position = (int) stringTableOffset;
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.limit() - position < 4 ? -1 : buffer.getInt(position);
+                if (length < 0 || length > buffer.limit() - position - 4) {
+                    throw new IOException("Corrupt alarm snapshot string " + i);
+                }
+                byte[] bytes = new byte[length];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(position + 4);
+                slice.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += 4 + length;
+            }
+            this.records = validRecords();
+        }
+
+        private int[] validRecords() {
+            int[] valid = null;
+            int kept = 0;
+            for (int record = 0; record < recordCount; record++) {
+                String problem = problemWith(HEADER_BYTES + record * recordBytes);
+                if (problem != null) {
+                    System.err.println("Skipping corrupt alarm record " + record + ": " + problem);
+                    if (valid == null) {
+                        valid = new int[recordCount - 1];
+                        for (kept = 0; kept < record; kept++) {
+                            valid[kept] = kept;
+                        }
+                    }
+                } else if (valid != null) {
+                    valid[kept++] = record;
+                }
+            }
+            return valid == null ? null : Arrays.copyOf(valid, kept);
+        }
+
+        private String problemWith(int offset) {
+            int minuteOfDay = buffer.getShort(offset + 8) & 0xFFFF;
+            if (minuteOfDay >= AlarmTimingWheel.MINUTES_PER_DAY) {
+                return "minute of day " + minuteOfDay;
+            }
+            for (int field = offset + 16; field <= offset + 20; field += 4) {
+                int string = buffer.getInt(field);
+                if (string < -1 || string >= strings.length) {
+                    return "string " + string + " of " + strings.length;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public AlarmItem get(int index) {
+            int offset = recordOffset(index);
+            AlarmItem alarm = new AlarmItem(
+                    AlarmTimingWheel.formatMinuteOfDay(buffer.getShort(offset + 8) & 0xFFFF),
+                    string(buffer.getInt(offset + 16)),
+                    string(buffer.getInt(offset + 20)),
+                    buffer.getShort(offset + 10) & 0xFFFF,
+                    (buffer.get(offset + 12) & FLAG_REPEAT) != 0);
+            alarm.setId(buffer.getLong(offset));
+            alarm.setEnabled((buffer.get(offset + 12) & FLAG_ENABLED) != 0);
+            return alarm;
+        }
+
+        @Override
+        public int size() {
+            return records == null ? recordCount : records.length;
+        }
+
+        public long idAt(int index) {
+            return buffer.getLong(recordOffset(index));
+        }
+
+        public int minuteOfDayAt(int index) {
+            return buffer.getShort(recordOffset(index) + 8) & 0xFFFF;
+        }
+
+        public boolean isEnabledAt(int index) {
+            return (buffer.get(recordOffset(index) + 12) & FLAG_ENABLED) != 0;
+        }
+
+        public boolean isRepeatDailyAt(int index) {
+            return (buffer.get(recordOffset(index) + 12) & FLAG_REPEAT) != 0;
+        }
+
+        public int snoozeAt(int index) {
+            return buffer.getShort(recordOffset(index) + 10) & 0xFFFF;
+        }
+
+        public String messageAt(int index) {
+            return string(buffer.getInt(recordOffset(index) + 16));
+        }
+
+        public String soundTypeAt(int index) {
+            return string(buffer.getInt(recordOffset(index) + 20));
+        }
+
+        private int recordOffset(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return HEADER_BYTES + (records == null ? index : records[index]) * recordBytes;
+        }
+
+        private String string(int index) {
+            return index < 0 ? null : strings[index];
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.alarmclock.service;
+
+import com.alarmclock.model.Alarm;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published once per bulk operation in place of one AlarmChangedEvent per
+ * alarm, so an import of thousands of alarms is a single notification.
+ */
+public class AlarmBulkChangedEvent {
+    private final List<Alarm> saved;
+    private final Collection<Long> deletedIds;
+
+    public AlarmBulkChangedEvent(List<Alarm> saved, Collection<Long> deletedIds) {
+        this.saved = saved;
+        this.deletedIds = deletedIds;
+    }
+
+    // Alarms created, updated or toggled, in their saved state
+    public List<Alarm> getSaved() {
+        return saved;
+    }
+
+    public Collection<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public int size() {
+        return saved.size() + deletedIds.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.alarmclock.service;
+
+import com.alarmclock.model.Alarm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for AlarmServiceImpl. The full list is kept as one
+ * snapshot tagged with a SHA-256 of its contents, and single alarms in a
+ * least-recently-used map bounded by {@code alarm.cache.maxEntries}.
+ * Writes through the service replace or evict the alarm and drop the
+ * snapshot; a load that raced with a write is returned but not kept.
+ * Alarm entities are mutable, so the cache keeps its own copies and every
+ * caller gets fresh ones.
+ */
+@Component
+public class AlarmCache {
+
+    public static final class Snapshot {
+        private final List<Alarm> alarms;
+        private final String eTag;
+
+        Snapshot(List<Alarm> alarms) {
+            this.alarms = copiesOf(alarms);
+            this.eTag = eTagFor(this.alarms);
+        }
+
+        // A new copy of each alarm per call, so callers may change them freely
+        public List<Alarm> getAlarms() {
+            return copiesOf(alarms);
+        }
+
+        // Strong ETag, equal for equal contents across restarts
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    @Value("${alarm.cache.maxEntries:10000}")
+    private int maxEntries;
+
+    // Larger lists are still served but not kept
+    @Value("${alarm.cache.maxSnapshotSize:50000}")
+    private int maxSnapshotSize;
+
+    // Access order, so iteration starts at the least recently used alarm
+    private final Map<Long, Alarm> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private Snapshot snapshot;
+    // Bumped by every write so loads that overlapped one are not cached
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public Snapshot getAll(Supplier<List<Alarm>> loader) {
+        long loadVersion;
+        synchronized (this) {
+            if (snapshot != null) {
+                hits++;
+                return snapshot;
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        Snapshot loaded = new Snapshot(loader.get());
+        synchronized (this) {
+            if (version == loadVersion && loaded.alarms.size() <= maxSnapshotSize) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    public Optional<Alarm> get(Long id, Function<Long, Optional<Alarm>> loader) {
+        long loadVersion;
+        synchronized (this) {
+            Alarm cached = byId.get(id);
+            if (cached != null) {
+                hits++;
+                return Optional.of(copyOf(cached));
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        Optional<Alarm> loaded = loader.apply(id);
+        synchronized (this) {
+            if (loaded.isPresent() && version == loadVersion) {
+                byId.put(id, copyOf(loaded.get()));
+                evictToBound();
+            }
+        }
+        return loaded;
+    }
+
+    // Call after the alarm was committed
+    public synchronized void put(Alarm alarm) {
+        version++;
+        snapshot = null;
+        byId.put(alarm.getId(), copyOf(alarm));
+        evictToBound();
+    }
+
+    public synchronized void evict(Long id) {
+        version++;
+        snapshot = null;
+        byId.remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        snapshot = null;
+        byId.clear();
+    }
+
+    // Bulk writes are only visible to other readers once committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlarmsChanged(AlarmBulkChangedEvent event) {
+        invalidateAll();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", getHitRatio());
+        stats.put("evictions", evictions);
+        stats.put("entries", byId.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("snapshotSize", snapshot != null ? snapshot.alarms.size() : 0);
+        return stats;
+    }
+
+    private void evictToBound() {
+        Iterator<Alarm> it = byId.values().iterator();
+        while (byId.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static List<Alarm> copiesOf(List<Alarm> alarms) {
+        List<Alarm> copies = new ArrayList<>(alarms.size());
+        for (Alarm alarm : alarms) {
+            copies.add(copyOf(alarm));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private static Alarm copyOf(Alarm alarm) {
+        Alarm copy = new Alarm();
+        copy.setId(alarm.getId());
+        copy.setTime(alarm.getTime());
+        copy.setMessage(alarm.getMessage());
+        copy.setSound(alarm.getSound());
+        copy.setRepeat(alarm.isRepeat());
+        copy.setSnooze(alarm.getSnooze());
+        copy.setActive(alarm.isActive());
+        copy.setMinuteOfDay(alarm.getMinuteOfDay());
+        return copy;
+    }
+
+    // SHA-256 over every field the list endpoint serializes, so equal ETags mean equal lists across restarts
+    private static String eTagFor(List<Alarm> alarms) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            out.writeInt(alarms.size());
+            for (Alarm alarm : alarms) {
+                out.writeLong(alarm.getId() != null ? alarm.getId() : -1L);
+                writeString(out, alarm.getTime());
+                writeString(out, alarm.getMessage());
+                writeString(out, alarm.getSound());
+                out.writeBoolean(alarm.isRepeat());
+                out.writeInt(alarm.getSnooze());
+                out.writeBoolean(alarm.isActive());
+                out.writeInt(alarm.getMinuteOfDay() != null ? alarm.getMinuteOfDay() : -1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    // Length-prefixed, with -1 for null, so field boundaries can't shift between alarms
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Function;
+
+/**
+ * One renderer component shared by every row of an alarm list: the alarm
+ * time in bold above its message. Together with the fixed cell size set by
+ * {@link #install(JList)}, a JList only lays out and paints the rows that
+ * are on screen, however many alarms the model holds.
+ */
+public class AlarmCellRenderer<T> extends JPanel implements ListCellRenderer<T> {
+    private final JLabel timeLabel = new JLabel();
+    private final JLabel messageLabel = new JLabel();
+    private final Function<T, String> timeText;
+    private final Function<T, String> messageText;
+
+    public AlarmCellRenderer(Function<T, String> timeText, Function<T, String> messageText) {
+        super(new GridLayout(2, 1));
+        this.timeText = timeText;
+        this.messageText = messageText;
+        timeLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createEtchedBorder(),
+            BorderFactory.createEmptyBorder(2, 5, 2, 5)
+        ));
+        add(timeLabel);
+        add(messageLabel);
+    }
+
+    /**
+     * Sets this renderer on {@code list} and fixes the cell size. Without a
+     * fixed size the list UI measures every row to lay itself out.
+     */
+    public void install(JList<T> list) {
+        timeLabel.setText("00:00");
+        messageLabel.setText(" ");
+        list.setCellRenderer(this);
+        list.setFixedCellHeight(getPreferredSize().height);
+        // The list still stretches rows to the viewport width
+        list.setFixedCellWidth(getPreferredSize().width);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends T> list, T value, int index,
+            boolean isSelected, boolean cellHasFocus) {
+        timeLabel.setText(timeText.apply(value));
+        messageLabel.setText(messageText.apply(value));
+
+        Color background = isSelected ? list.getSelectionBackground() : list.getBackground();
+        Color foreground = isSelected ? list.getSelectionForeground() : list.getForeground();
+        setBackground(background);
+        timeLabel.setForeground(foreground);
+        messageLabel.setForeground(foreground);
+        return this;
+    }
+}
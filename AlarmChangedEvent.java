@@ -0,0 +1,54 @@
+package com.alarmclock.service;
+
+import com.alarmclock.model.Alarm;
+
+/**
+ * Published by AlarmService after an alarm is saved, updated or deleted, so
+ * listeners can apply the one change instead of reloading every alarm.
+ */
+public class AlarmChangedEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long alarmId;
+    private final Alarm alarm;
+
+    private AlarmChangedEvent(Type type, Long alarmId, Alarm alarm) {
+        this.type = type;
+        this.alarmId = alarmId;
+        this.alarm = alarm;
+    }
+
+    public static AlarmChangedEvent created(Alarm alarm) {
+        return new AlarmChangedEvent(Type.CREATED, alarm.getId(), alarm);
+    }
+
+    public static AlarmChangedEvent updated(Alarm alarm) {
+        return new AlarmChangedEvent(Type.UPDATED, alarm.getId(), alarm);
+    }
+
+    public static AlarmChangedEvent deleted(Long alarmId) {
+        return new AlarmChangedEvent(Type.DELETED, alarmId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAlarmId() {
+        return alarmId;
+    }
+
+    // The saved state, or null when the alarm was deleted
+    public Alarm getAlarm() {
+        return alarm;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
\ No newline at end of file
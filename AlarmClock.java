@@ -1,14 +1,16 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+import com.alarmclock.scheduling.SnoozeScheduler;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class AlarmClock extends JFrame {
-    private JLabel timeLabel;
+    private ClockFace timeLabel;
     private JLabel dateLabel;
     private JTextField timeInput;
     private JTextField messageInput;
@@ -17,13 +19,26 @@ public class AlarmClock extends JFrame {
     private JComboBox<Integer> snoozeSelect;
     private JButton addButton;
     private JPanel alarmsPanel;
-    private ArrayList<Alarm> alarms;
-    private Timer timer;
-    private DateTimeFormatter timeFormatter;
+    private JList<Alarm> alarmList;
+    private AlarmListModel<Alarm> alarms;
+    private AlarmTimingWheel<Alarm> wheel;
+    private Map<Alarm, AlarmTimingWheel.Entry<Alarm>> wheelEntries;
+    private ClockTickEngine clock;
+    private final Consumer<Alarm> fireAlarm = this::fireAlarm;
+    private SnoozeScheduler<Alarm> snoozes;
+    private final Consumer<SnoozeScheduler.Snooze<Alarm>> fireSnooze = this::fireSnooze;
+    private AlarmFiringPipeline<Alarm> firing;
 
     public AlarmClock() {
-        alarms = new ArrayList<>();
-        timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        alarms = new AlarmListModel<>();
+        wheel = new AlarmTimingWheel<>();
+        wheelEntries = new HashMap<>();
+        snoozes = new SnoozeScheduler<>(Integer.getInteger("alarm.snooze.maxCount", SnoozeScheduler.DEFAULT_MAX_SNOOZES));
+        clock = new ClockTickEngine(DateTimeFormatter.ISO_LOCAL_DATE);
+        firing = new AlarmFiringPipeline<>(this, 256, 4, Alarm::getMessage, alarm -> {
+            Toolkit.getDefaultToolkit().beep();
+            return () -> { };
+        }, this::alarmAcknowledged);
         
         // Set up the frame
         setTitle("Java Alarm Clock");
@@ -41,8 +56,7 @@ public class AlarmClock extends JFrame {
         clockPanel.setLayout(new BoxLayout(clockPanel, BoxLayout.Y_AXIS));
         clockPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        timeLabel = new JLabel("00:00:00");
-        timeLabel.setFont(new Font("Arial", Font.BOLD, 48));
+        timeLabel = new ClockFace(clock, new Font("Arial", Font.BOLD, 48), UIManager.getColor("Label.foreground"));
         timeLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         dateLabel = new JLabel();
@@ -103,10 +117,21 @@ public class AlarmClock extends JFrame {
         formPanel.add(addButton);
         
         // Alarms panel
-        alarmsPanel = new JPanel();
-        alarmsPanel.setLayout(new BoxLayout(alarmsPanel, BoxLayout.Y_AXIS));
+        alarmsPanel = new JPanel(new BorderLayout());
         alarmsPanel.setBorder(BorderFactory.createTitledBorder("Active Alarms"));
         
+        alarmList = new JList<>(alarms);
+        new AlarmCellRenderer<Alarm>(Alarm::getTime, Alarm::getMessage).install(alarmList);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton snoozeButton = new JButton("Snooze");
+        JButton deleteButton = new JButton("Delete");
+        buttonPanel.add(snoozeButton);
+        buttonPanel.add(deleteButton);
+        
+        alarmsPanel.add(new JScrollPane(alarmList), BorderLayout.CENTER);
+        alarmsPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         // Add panels to main panel
         mainPanel.add(clockPanel);
         mainPanel.add(Box.createVerticalStrut(20));
@@ -119,24 +144,31 @@ public class AlarmClock extends JFrame {
         
         // Set up event listeners
         addButton.addActionListener(e -> addAlarm());
+        snoozeButton.addActionListener(e -> {
+            Alarm alarm = alarmList.getSelectedValue();
+            if (alarm != null) {
+                snoozeAlarm(alarm);
+            }
+        });
+        deleteButton.addActionListener(e -> {
+            Alarm alarm = alarmList.getSelectedValue();
+            if (alarm != null) {
+                deleteAlarm(alarm);
+            }
+        });
         
         // Start clock
         startClock();
     }
     
     private void startClock() {
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                SwingUtilities.invokeLater(() -> {
-                    LocalTime now = LocalTime.now();
-                    timeLabel.setText(now.format(timeFormatter));
-                    dateLabel.setText(java.time.LocalDate.now().toString());
-                    checkAlarms();
-                });
+        clock.addListener(clock -> {
+            if (clock.isDayChanged()) {
+                dateLabel.setText(clock.getDateText());
             }
-        }, 0, 1000);
+            checkAlarms();
+        });
+        clock.start();
     }
     
     private void addAlarm() {
@@ -151,44 +183,20 @@ public class AlarmClock extends JFrame {
             return;
         }
         
+        int minuteOfDay;
+        try {
+            minuteOfDay = AlarmTimingWheel.toMinuteOfDay(time);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Invalid time format. Please use HH:MM");
+            return;
+        }
+        
         Alarm alarm = new Alarm(time, message, sound, repeat, snooze);
         alarms.add(alarm);
-        updateAlarmsPanel();
+        wheelEntries.put(alarm, wheel.schedule(minuteOfDay, alarm));
         clearForm();
     }
     
-    private void updateAlarmsPanel() {
-        alarmsPanel.removeAll();
-        
-        for (Alarm alarm : alarms) {
-            JPanel alarmPanel = new JPanel(new BorderLayout());
-            alarmPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-            
-            JPanel infoPanel = new JPanel(new GridLayout(2, 1));
-            infoPanel.add(new JLabel(alarm.getTime()));
-            infoPanel.add(new JLabel(alarm.getMessage()));
-            
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            JButton snoozeButton = new JButton("Snooze");
-            JButton deleteButton = new JButton("Delete");
-            
-            snoozeButton.addActionListener(e -> snoozeAlarm(alarm));
-            deleteButton.addActionListener(e -> deleteAlarm(alarm));
-            
-            buttonPanel.add(snoozeButton);
-            buttonPanel.add(deleteButton);
-            
-            alarmPanel.add(infoPanel, BorderLayout.CENTER);
-            alarmPanel.add(buttonPanel, BorderLayout.EAST);
-            
-            alarmsPanel.add(alarmPanel);
-            alarmsPanel.add(Box.createVerticalStrut(5));
-        }
-        
-        alarmsPanel.revalidate();
-        alarmsPanel.repaint();
-    }
-    
     private void clearForm() {
         timeInput.setText("");
         messageInput.setText("");
@@ -198,54 +206,55 @@ public class AlarmClock extends JFrame {
     }
     
     private void checkAlarms() {
-        String currentTime = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm"));
-        
-        for (Alarm alarm : alarms) {
-            if (alarm.getTime().equals(currentTime) && alarm.isActive()) {
-                triggerAlarm(alarm);
-            }
+        int minuteOfDay = clock.getMinuteOfDay();
+        wheel.advanceTo(minuteOfDay, fireAlarm);
+        snoozes.advanceTo(minuteOfDay, fireSnooze);
+    }
+    
+    private void fireAlarm(Alarm alarm) {
+        // A new occurrence starts a fresh snooze chain
+        snoozes.cancel(alarm);
+        ringAlarm(alarm);
+    }
+    
+    private void fireSnooze(SnoozeScheduler.Snooze<Alarm> snooze) {
+        ringAlarm(snooze.getAlarm());
+    }
+    
+    private void ringAlarm(Alarm alarm) {
+        if (alarm.isActive()) {
+            firing.fire(alarm);
         }
     }
     
-    private void triggerAlarm(Alarm alarm) {
-        // Play sound
-        Toolkit.getDefaultToolkit().beep();
-        
-        // Show dialog
-        int choice = JOptionPane.showConfirmDialog(
-            this,
-            alarm.getMessage() + "\n\nSnooze?",
-            "Alarm",
-            JOptionPane.YES_NO_OPTION
-        );
+    private void alarmAcknowledged(Alarm alarm, AlarmFiringPipeline.Acknowledgement acknowledgement) {
+        // Deleted while its dialog was open
+        if (!wheelEntries.containsKey(alarm)) {
+            return;
+        }
         
-        if (choice == JOptionPane.YES_OPTION) {
-            snoozeAlarm(alarm);
-        } else {
-            if (!alarm.isRepeat()) {
-                deleteAlarm(alarm);
-            }
+        if (acknowledgement == AlarmFiringPipeline.Acknowledgement.SNOOZE && snoozeAlarm(alarm)) {
+            return;
+        }
+        snoozes.cancel(alarm);
+        if (!alarm.isRepeat()) {
+            deleteAlarm(alarm);
         }
     }
     
-    private void snoozeAlarm(Alarm alarm) {
-        String[] timeParts = alarm.getTime().split(":");
-        int hours = Integer.parseInt(timeParts[0]);
-        int minutes = Integer.parseInt(timeParts[1]);
-        
-        minutes += alarm.getSnooze();
-        if (minutes >= 60) {
-            hours = (hours + minutes / 60) % 24;
-            minutes = minutes % 60;
+    // Rings again after the alarm's snooze time without moving the alarm
+    private boolean snoozeAlarm(Alarm alarm) {
+        if (snoozes.snooze(alarm, clock.getMinuteOfDay(), Math.max(1, alarm.getSnooze()))) {
+            return true;
         }
-        
-        alarm.setTime(String.format("%02d:%02d", hours, minutes));
-        updateAlarmsPanel();
+        firing.showNotice("Snooze limit reached for this alarm.");
+        return false;
     }
     
     private void deleteAlarm(Alarm alarm) {
         alarms.remove(alarm);
-        updateAlarmsPanel();
+        wheel.cancel(wheelEntries.remove(alarm));
+        snoozes.cancel(alarm);
     }
     
     public static void main(String[] args) {
@@ -1,25 +1,45 @@
+import com.alarmclock.metrics.AlarmLatencyMetrics;
+import com.alarmclock.scheduling.SnoozeScheduler;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.time.LocalTime;
-import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public class AlarmClockApp extends JFrame {
-    private ArrayList<AlarmItem> alarms;
-    private JLabel timeLabel, dateLabel;
+    // Alarms live in the store's columns, which also tell which are due
+    private AlarmColumnStore store;
+    private AlarmStoreListModel alarms;
+    private ClockTickEngine clock = new ClockTickEngine(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy"));
+    private final LongConsumer fireAlarm = this::fireAlarm;
+    // Snoozes ring on top of the alarm's own time instead of moving it
+    private final SnoozeScheduler<Long> snoozes = new SnoozeScheduler<>(
+        Integer.getInteger("alarm.snooze.maxCount", SnoozeScheduler.DEFAULT_MAX_SNOOZES));
+    private final Consumer<SnoozeScheduler.Snooze<Long>> fireSnooze = this::fireSnooze;
+    private final AlarmFiringPipeline<AlarmItem> firing = new AlarmFiringPipeline<>(
+        this, 256, 4, AlarmItem::getMessage, this::playAlarmSound, this::alarmAcknowledged);
+    // Latency timestamps of alarms between detection and acknowledgement, by id
+    private final Map<Long, AlarmLatencyMetrics.Firing> firingTimes = new ConcurrentHashMap<>();
+    private ClockFace timeLabel;
+    private JLabel dateLabel;
     private JTextField timeField, messageField;
     private JComboBox<String> soundComboBox;
     private JComboBox<Integer> snoozeComboBox;
     private JCheckBox repeatCheckBox;
-    private JPanel alarmsPanel;
+    private JList<AlarmItem> alarmList;
 
     public AlarmClockApp() {
+        // Render the alarm tones before the first alarm needs them
+        ToneBank.prewarm();
+        AlarmLatencyMetrics.get().start(Long.getLong("alarm.metrics.logSeconds", 60L));
+        
         // Load saved alarms
-        alarms = new ArrayList<>(AlarmDataManager.loadAlarms());
+        store = AlarmDataManager.loadAlarmStore();
+        alarms = new AlarmStoreListModel(store);
         
         // Set up the JFrame
         setTitle("Alarm Clock");
@@ -55,13 +75,12 @@ public class AlarmClockApp extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                AlarmDataManager.saveAlarms(alarms);
+                firing.shutdown();
+                AlarmDataManager.compactAlarms();
             }
         });
         
-        // Update alarms panel
-        updateAlarmsPanel();
-        
+
         // Start clock
         startClock();
     }
@@ -73,9 +92,7 @@ public class AlarmClockApp extends JFrame {
         clockPanel.setBackground(new Color(58, 123, 213));
         clockPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
-        timeLabel = new JLabel("00:00:00");
-        timeLabel.setFont(new Font("Arial", Font.BOLD, 48));
-        timeLabel.setForeground(Color.WHITE);
+        timeLabel = new ClockFace(clock, new Font("Arial", Font.BOLD, 48), Color.WHITE);
         timeLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         dateLabel = new JLabel();
@@ -151,36 +168,47 @@ public class AlarmClockApp extends JFrame {
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBorder(BorderFactory.createTitledBorder("Active Alarms"));
         
-        alarmsPanel = new JPanel();
-        alarmsPanel.setLayout(new BoxLayout(alarmsPanel, BoxLayout.Y_AXIS));
+        alarmList = new JList<>(alarms);
+        new AlarmCellRenderer<AlarmItem>(AlarmItem::getTime, AlarmItem::getMessage).install(alarmList);
         
-        JScrollPane scrollPane = new JScrollPane(alarmsPanel);
+        JScrollPane scrollPane = new JScrollPane(alarmList);
         scrollPane.setPreferredSize(new Dimension(700, 200));
         
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton snoozeButton = new JButton("Snooze");
+        JButton deleteButton = new JButton("Delete");
+        
+        snoozeButton.addActionListener(e -> {
+            AlarmItem alarm = alarmList.getSelectedValue();
+            if (alarm != null) {
+                snoozeAlarm(alarm);
+            }
+        });
+        deleteButton.addActionListener(e -> {
+            AlarmItem alarm = alarmList.getSelectedValue();
+            if (alarm != null) {
+                deleteAlarm(alarm);
+            }
+        });
+        
+        buttonPanel.add(snoozeButton);
+        buttonPanel.add(deleteButton);
+        
         mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
         
         return mainPanel;
     }
     
     private void startClock() {
-        Timer timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                SwingUtilities.invokeLater(() -> {
-                    LocalTime now = LocalTime.now();
-                    LocalDate today = LocalDate.now();
-                    
-                    DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
-                    DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
-                    
-                    timeLabel.setText(now.format(timeFormatter));
-                    dateLabel.setText(today.format(dateFormatter));
-                    
-                    checkAlarms(now);
-                });
+        clock.addListener(clock -> {
+            if (clock.isDayChanged()) {
+                dateLabel.setText(clock.getDateText());
             }
-        }, 0, 1000);
+            
+            checkAlarms(clock.getMinuteOfDay());
+        });
+        clock.start();
     }
     
     private void addAlarm() {
@@ -218,85 +246,35 @@ public class AlarmClockApp extends JFrame {
                 repeat
             );
             
-            alarms.add(alarm);
-            updateAlarmsPanel();
+            // The list only shows alarms that were saved
+            if (!alarms.add(alarm)) {
+                JOptionPane.showMessageDialog(this, "The alarm could not be saved.");
+                return;
+            }
             clearForm();
             
-            // Save alarms
-            AlarmDataManager.saveAlarms(alarms);
-            
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Invalid time format. Please use HH:MM");
         }
     }
     
-    private void updateAlarmsPanel() {
-        alarmsPanel.removeAll();
-        
-        if (alarms.isEmpty()) {
-            JLabel emptyLabel = new JLabel("No alarms set");
-            emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            alarmsPanel.add(emptyLabel);
-        } else {
-            for (AlarmItem alarm : alarms) {
-                JPanel alarmPanel = new JPanel(new BorderLayout());
-                alarmPanel.setBorder(BorderFactory.createEtchedBorder());
-                alarmPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 60));
-                
-                JPanel infoPanel = new JPanel(new GridLayout(2, 1));
-                JLabel timeLabel = new JLabel(alarm.getTime());
-                timeLabel.setFont(new Font("Arial", Font.BOLD, 14));
-                JLabel messageLabel = new JLabel(alarm.getMessage());
-                
-                infoPanel.add(timeLabel);
-                infoPanel.add(messageLabel);
-                
-                JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-                JButton snoozeButton = new JButton("Snooze");
-                JButton deleteButton = new JButton("Delete");
-                
-                snoozeButton.addActionListener(e -> snoozeAlarm(alarm));
-                deleteButton.addActionListener(e -> deleteAlarm(alarm));
-                
-                buttonPanel.add(snoozeButton);
-                buttonPanel.add(deleteButton);
-                
-                alarmPanel.add(infoPanel, BorderLayout.CENTER);
-                alarmPanel.add(buttonPanel, BorderLayout.EAST);
-                
-                alarmsPanel.add(alarmPanel);
-                alarmsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
-            }
-        }
-        
-        alarmsPanel.revalidate();
-        alarmsPanel.repaint();
-    }
-    
-    private void snoozeAlarm(AlarmItem alarm) {
-        String[] parts = alarm.getTime().split(":");
-        int hours = Integer.parseInt(parts[0]);
-        int minutes = Integer.parseInt(parts[1]);
-        
-        minutes += alarm.getSnooze();
-        if (minutes >= 60) {
-            hours = (hours + minutes / 60) % 24;
-            minutes = minutes % 60;
+    // Rings again after the alarm's snooze time; the alarm itself and the
+    // saved file are left alone. False once the snooze limit is used up,
+    // and the caller treats the alarm as dismissed
+    private boolean snoozeAlarm(AlarmItem alarm) {
+        if (snoozes.snooze(alarm.getId(), clock.getMinuteOfDay(), Math.max(1, alarm.getSnooze()))) {
+            return true;
         }
-        
-        alarm.setTime(String.format("%02d:%02d", hours, minutes));
-        updateAlarmsPanel();
-        
-        // Save alarms
-        AlarmDataManager.saveAlarms(alarms);
+        firing.showNotice("\"" + alarm.getMessage() + "\" has been snoozed "
+            + snoozes.getMaxSnoozes() + " times already.");
+        return false;
     }
     
     private void deleteAlarm(AlarmItem alarm) {
-        alarms.remove(alarm);
-        updateAlarmsPanel();
-        
-        // Save alarms
-        AlarmDataManager.saveAlarms(alarms);
+        // Saved before it leaves the list
+        if (alarms.remove(alarm.getId())) {
+            snoozes.cancel(alarm.getId());
+        }
     }
     
     private void clearForm() {
@@ -307,38 +285,66 @@ public class AlarmClockApp extends JFrame {
         repeatCheckBox.setSelected(false);
     }
     
-    private void checkAlarms(LocalTime now) {
-        String currentTime = now.format(DateTimeFormatter.ofPattern("HH:mm"));
-        
-        for (AlarmItem alarm : new ArrayList<>(alarms)) {
-            if (alarm.getTime().equals(currentTime) && alarm.isActive()) {
-                triggerAlarm(alarm);
+    private void checkAlarms(int minuteOfDay) {
+        store.advanceTo(minuteOfDay, fireAlarm);
+        snoozes.advanceTo(minuteOfDay, fireSnooze);
+    }
+    
+    private void fireAlarm(long id) {
+        // A new occurrence starts a fresh snooze chain
+        snoozes.cancel(id);
+        int row = store.rowOf(id);
+        fireAlarm(store.toAlarmItem(row), store.minuteOfDayAt(row));
+    }
+    
+    private void fireSnooze(SnoozeScheduler.Snooze<Long> snooze) {
+        int row = store.rowOf(snooze.getAlarm());
+        if (row >= 0) {
+            fireAlarm(store.toAlarmItem(row), snooze.getMinuteOfDay());
+        }
+    }
+    
+    private void fireAlarm(AlarmItem alarm, int dueMinuteOfDay) {
+        if (alarm.isEnabled()) {
+            long due = AlarmLatencyMetrics.dueMillisForMinuteOfDay(dueMinuteOfDay);
+            firingTimes.put(alarm.getId(), AlarmLatencyMetrics.get().detected(due));
+            if (!firing.fire(alarm)) {
+                firingTimes.remove(alarm.getId());
             }
         }
     }
     
-    private void triggerAlarm(AlarmItem alarm) {
-        // Play sound
+    // Runs on a firing worker, so several alarms can ring at once
+    private Runnable playAlarmSound(AlarmItem alarm) {
+        AlarmLatencyMetrics.Firing times = firingTimes.get(alarm.getId());
+        if (times != null) {
+            times.mark(AlarmLatencyMetrics.Stage.DISPATCHED);
+        }
         AlarmSoundPlayer soundPlayer = new AlarmSoundPlayer();
-        soundPlayer.playSound(alarm.getSound());
-        
-        // Show dialog
-        int option = JOptionPane.showConfirmDialog(
-            this,
-            alarm.getMessage() + "\n\nSnooze alarm?",
-            "Alarm",
-            JOptionPane.YES_NO_OPTION
-        );
-        
-        // Stop sound
-        soundPlayer.stop();
-        
-        if (option == JOptionPane.YES_OPTION) {
-            snoozeAlarm(alarm);
-        } else {
-            if (!alarm.isRepeat()) {
-                deleteAlarm(alarm);
-            }
+        soundPlayer.playSound(alarm.getSoundType());
+        if (times != null) {
+            times.mark(AlarmLatencyMetrics.Stage.AUDIO_STARTED);
+        }
+        return soundPlayer::stop;
+    }
+    
+    private void alarmAcknowledged(AlarmItem alarm, AlarmFiringPipeline.Acknowledgement acknowledgement) {
+        AlarmLatencyMetrics.Firing times = firingTimes.remove(alarm.getId());
+        if (times != null) {
+            times.mark(AlarmLatencyMetrics.Stage.ACKNOWLEDGED);
+        }
+        
+        // Deleted while its dialog was open
+        if (!alarms.contains(alarm.getId())) {
+            return;
+        }
+        
+        if (acknowledgement == AlarmFiringPipeline.Acknowledgement.SNOOZE && snoozeAlarm(alarm)) {
+            return;
+        }
+        snoozes.cancel(alarm.getId());
+        if (!alarm.isRepeatDaily()) {
+            deleteAlarm(alarm);
         }
     }
     
@@ -1,11 +1,15 @@
 package com.alarmclock;
 
+import com.alarmclock.metrics.AlarmLatencyMetrics;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(AlarmClockRuntimeHints.class)
 public class AlarmClockApplication {
     public static void main(String[] args) {
         SpringApplication.run(AlarmClockApplication.class, args);
+        AlarmLatencyMetrics.get().start(Long.getLong("alarm.metrics.logSeconds", 60L));
     }
 } 
\ No newline at end of file
@@ -19,8 +19,8 @@ public class AlarmClockGUI extends JFrame {
     private JCheckBox repeatCheckBox;
     private JSpinner snoozeSpinner;
     private JLabel statusLabel;
-    private JLabel clockLabel;
-    private Timer clockTimer;
+    private ClockFace clockLabel;
+    private ClockTickEngine clock = new ClockTickEngine(null);
     private static final Color BACKGROUND_COLOR = new Color(240, 240, 240);
     private static final Color ACCENT_COLOR = new Color(70, 130, 180);
     private static final Font CLOCK_FONT = new Font("Arial", Font.BOLD, 24);
@@ -57,22 +57,13 @@ public class AlarmClockGUI extends JFrame {
     private JPanel createClockPanel() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         panel.setBackground(BACKGROUND_COLOR);
-        clockLabel = new JLabel();
-        clockLabel.setFont(CLOCK_FONT);
-        clockLabel.setForeground(ACCENT_COLOR);
+        clockLabel = new ClockFace(clock, CLOCK_FONT, ACCENT_COLOR);
         panel.add(clockLabel);
         return panel;
     }
 
     private void startClock() {
-        clockTimer = new Timer(1000, e -> updateClock());
-        clockTimer.start();
-        updateClock();
-    }
-
-    private void updateClock() {
-        LocalTime now = LocalTime.now();
-        clockLabel.setText(now.format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        clock.start();
     }
 
     private JPanel createInputPanel() {
@@ -189,8 +180,23 @@ public class AlarmClockGUI extends JFrame {
         removeButton.setFocusPainted(false);
         removeButton.addActionListener(e -> removeSelectedAlarm());
         
+        // Alarm sounds loop until stopped here
+        JButton stopButton = new JButton("Stop Alarm");
+        stopButton.setBackground(ACCENT_COLOR);
+        stopButton.setForeground(Color.WHITE);
+        stopButton.setFocusPainted(false);
+        stopButton.addActionListener(e -> {
+            alarmManager.stopAllAlarms();
+            statusLabel.setText("Alarm stopped");
+        });
+        
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        buttonPanel.setBackground(BACKGROUND_COLOR);
+        buttonPanel.add(removeButton);
+        buttonPanel.add(stopButton);
+        
         panel.add(new JScrollPane(alarmList), BorderLayout.CENTER);
-        panel.add(removeButton, BorderLayout.SOUTH);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
         
         return new JScrollPane(panel);
     }
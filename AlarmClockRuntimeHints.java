@@ -0,0 +1,24 @@
+package com.alarmclock;
+
+import com.alarmclock.metrics.AlarmLatencyMetrics;
+import com.alarmclock.metrics.AlarmLatencyMetricsMBean;
+import com.alarmclock.scheduling.AlarmFiredEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection that Spring AOT cannot infer, for native images: the latency
+ * MBean is introspected by JMX, and fired events are serialized to the SSE
+ * stream by Jackson without ever being a controller return type.
+ */
+public class AlarmClockRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(AlarmLatencyMetricsMBean.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(AlarmLatencyMetrics.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(AlarmFiredEvent.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
\ No newline at end of file
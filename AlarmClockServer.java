@@ -1,3 +1,5 @@
+import com.alarmclock.scheduling.AlarmExecutors;
+import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
@@ -6,10 +8,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 public class AlarmClockServer {
     private static final int PORT = 8080;
@@ -17,54 +20,139 @@ public class AlarmClockServer {
     private static final String JS_FILE = "app.js";
     
     public static void main(String[] args) throws IOException {
-        HttpServer server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        long startNanos = System.nanoTime();
+        // Headers and body go out in separate writes; without TCP_NODELAY each
+        // keep-alive response can stall ~40 ms on Nagle plus delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(PORT), Integer.getInteger("alarm.web.backlog", 1024));
         
         // Create context for serving the HTML file
         server.createContext("/", new FileHandler(HTML_FILE, "text/html"));
         
         // Create context for serving the JavaScript file
         server.createContext("/app.js", new FileHandler(JS_FILE, "application/javascript"));
+
+        // Alarm CRUD for app.js, persisted through AlarmDataManager
+        server.createContext(AlarmApiHandler.PATH, new AlarmApiHandler());
         
         // Start the server
-        server.setExecutor(null);
+        server.setExecutor(createExecutor());
         server.start();
         
-        System.out.println("Alarm Clock server running at http://localhost:" + PORT);
+        System.out.println("Alarm Clock server running at http://localhost:" + PORT
+                + " (ready in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms)");
     }
     
-    // Handler for serving files
+    // Handler for serving files from memory
     static class FileHandler implements HttpHandler {
-        private final String filePath;
-        private final String contentType;
+        private final StaticAsset asset;
         
         public FileHandler(String filePath, String contentType) {
-            this.filePath = filePath;
-            this.contentType = contentType;
+            this.asset = new StaticAsset(filePath, contentType);
         }
         
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             try {
-                // Read the file content
-                byte[] fileContent = Files.readAllBytes(Paths.get(filePath));
-                
-                // Set response headers
-                exchange.getResponseHeaders().set("Content-Type", contentType);
-                
-                // Send the response
-                exchange.sendResponseHeaders(200, fileContent.length);
-                
-                // Write the file content to the response
+                String method = exchange.getRequestMethod();
+                boolean head = method.equals("HEAD");
+                if (!head && !method.equals("GET")) {
+                    exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+
+                StaticAsset.Contents contents = asset.get();
+                Headers request = exchange.getRequestHeaders();
+                Headers response = exchange.getResponseHeaders();
+
+                // Pick the smallest encoding the client accepts
+                String acceptEncoding = request.getFirst("Accept-Encoding");
+                String encoding = null;
+                byte[] body = contents.getIdentity();
+                if (contents.getBrotli() != null && accepts(acceptEncoding, "br")) {
+                    encoding = "br";
+                    body = contents.getBrotli();
+                } else if (contents.getGzip() != null && accepts(acceptEncoding, "gzip")) {
+                    encoding = "gzip";
+                    body = contents.getGzip();
+                }
+                response.set("ETag", contents.getETag(encoding));
+                response.set("Last-Modified", contents.getLastModified());
+                response.set("Cache-Control", "no-cache");
+                response.set("Vary", "Accept-Encoding");
+
+                if (contents.isNotModified(encoding, request.getFirst("If-None-Match"),
+                        request.getFirst("If-Modified-Since"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+
+                if (encoding != null) {
+                    response.set("Content-Encoding", encoding);
+                }
+                response.set("Content-Type", asset.getContentType());
+
+                if (head) {
+                    response.set("Content-Length", Integer.toString(body.length));
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, body.length);
                 try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(fileContent);
+                    os.write(body);
                 }
             } catch (IOException e) {
-                String response = "Error: " + e.getMessage();
-                exchange.sendResponseHeaders(500, response.length());
+                byte[] response = ("Error: " + e.getMessage()).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(e instanceof NoSuchFileException ? 404 : 500, response.length);
                 try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(response.getBytes());
+                    os.write(response);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    // True if the Accept-Encoding header lists the coding without q=0
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            if (!params[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return true;
+                    }
                 }
             }
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * One virtual thread per request when the JVM has them (Java 21+), else
+     * a fixed pool of {@code alarm.web.threads} threads, both from
+     * {@link AlarmExecutors}.
+     */
+    static ExecutorService createExecutor() {
+        boolean virtualThreads = Boolean.parseBoolean(System.getProperty("alarm.web.virtualThreads", "true"))
+                && AlarmExecutors.isVirtualThreadsSupported();
+        int threads = Integer.getInteger("alarm.web.threads", Runtime.getRuntime().availableProcessors() * 4);
+        System.out.println(virtualThreads
+                ? "Serving requests on virtual threads"
+                : "Serving requests on " + threads + " threads");
+        return AlarmExecutors.newExecutor("http", threads, virtualThreads);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
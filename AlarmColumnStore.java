@@ -0,0 +1,473 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+
+/**
+ * Column-oriented alarm storage for large alarm sets. Each alarm is a row
+ * spread over primitive arrays: minute of day as a short, enabled and repeat
+ * flags in bitsets, and message, sound type and snooze together as one code
+ * into a shared dictionary, since alarms repeat the same few combinations. Rows are addressed by index for scans and by alarm id
+ * through a primitive hash index; removal swaps the last row into the hole,
+ * so row indexes are only stable until the next removal.
+ *
+ * The rows of each minute of the day are also chained into a list, so
+ * {@link #advanceTo} works like {@link AlarmTimingWheel#advanceTo} and only
+ * touches the alarms that are due. Not thread-safe.
+ */
+public class AlarmColumnStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NO_ID = 0;
+    private static final int NO_ROW = -1;
+
+    private long[] ids;
+    private short[] minutes;
+    private int[] settingCodes;
+    private final BitSet enabled = new BitSet();
+    private final BitSet repeatDaily = new BitSet();
+    private final Dictionary<Setting> settings = new Dictionary<>();
+    private int size;
+
+    // Rows of each minute as a doubly linked list through row numbers
+    private final int[] minuteHeads = new int[AlarmTimingWheel.MINUTES_PER_DAY];
+    private int[] nextInMinute;
+    private int[] prevInMinute;
+
+    // Open-addressing id -> row + 1 (0 marks an empty slot). Keys are read
+    // back from the id column, so the index costs one int per slot
+    private int[] index;
+
+    // Reused between advances so a tick does not allocate once warmed up
+    private long[] due = new long[INITIAL_CAPACITY];
+    private int lastMinute = -1;
+
+    public AlarmColumnStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public AlarmColumnStore(int expectedRows) {
+        int capacity = Math.max(1, expectedRows);
+        ids = new long[capacity];
+        minutes = new short[capacity];
+        settingCodes = new int[capacity];
+        nextInMinute = new int[capacity];
+        prevInMinute = new int[capacity];
+        index = new int[indexCapacityFor(capacity)];
+        Arrays.fill(minuteHeads, NO_ROW);
+    }
+
+    public static AlarmColumnStore from(AlarmBinaryFormat.Snapshot snapshot) {
+        AlarmColumnStore store = new AlarmColumnStore(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            store.put(snapshot.idAt(i), snapshot.minuteOfDayAt(i), snapshot.messageAt(i),
+                    snapshot.soundTypeAt(i), snapshot.snoozeAt(i),
+                    snapshot.isRepeatDailyAt(i), snapshot.isEnabledAt(i));
+        }
+        return store;
+    }
+
+    public void put(AlarmItem alarm) {
+        put(alarm.getId(), alarm.getMinuteOfDay(), alarm.getMessage(), alarm.getSoundType(),
+                alarm.getSnooze(), alarm.isRepeatDaily(), alarm.isEnabled());
+    }
+
+    /**
+     * Inserts a new row, or overwrites the row that already has this id.
+     * Returns the row index.
+     */
+    public int put(long id, int minuteOfDay, String message, String soundType,
+                   int snooze, boolean repeat, boolean isEnabled) {
+        if (id == NO_ID) {
+            throw new IllegalArgumentException("Alarm id must be assigned before storing");
+        }
+        if (minuteOfDay < 0 || minuteOfDay >= AlarmTimingWheel.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        if (snooze < 0) {
+            throw new IllegalArgumentException("Snooze minutes out of range: " + snooze);
+        }
+
+        int row = rowOf(id);
+        if (row < 0) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = id;
+            indexPut(id, row);
+            minutes[row] = (short) minuteOfDay;
+            link(row);
+        } else if (minutes[row] != minuteOfDay) {
+            unlink(row);
+            minutes[row] = (short) minuteOfDay;
+            link(row);
+        }
+        settingCodes[row] = settings.encode(new Setting(message, soundType, snooze));
+        enabled.set(row, isEnabled);
+        repeatDaily.set(row, repeat);
+        return row;
+    }
+
+    public boolean remove(long id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        indexRemove(id);
+        unlink(row);
+
+        int last = size - 1;
+        if (row != last) {
+            // Move the last row into the hole and repoint its links and index slot
+            indexRemove(ids[last]);
+            unlink(last);
+            ids[row] = ids[last];
+            minutes[row] = minutes[last];
+            settingCodes[row] = settingCodes[last];
+            enabled.set(row, enabled.get(last));
+            repeatDaily.set(row, repeatDaily.get(last));
+            indexPut(ids[row], row);
+            link(row);
+        }
+        size--;
+        ids[last] = NO_ID;
+        enabled.clear(last);
+        repeatDaily.clear(last);
+        return true;
+    }
+
+    public boolean setEnabled(long id, boolean isEnabled) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        enabled.set(row, isEnabled);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int rowOf(long id) {
+        int mask = index.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (ids[entry - 1] == id) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public boolean contains(long id) {
+        return rowOf(id) >= 0;
+    }
+
+    public long idAt(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public int minuteOfDayAt(int row) {
+        return minutes[checkRow(row)];
+    }
+
+    public int snoozeAt(int row) {
+        return settings.decode(settingCodes[checkRow(row)]).snooze;
+    }
+
+    public boolean isEnabledAt(int row) {
+        return enabled.get(checkRow(row));
+    }
+
+    public boolean isRepeatDailyAt(int row) {
+        return repeatDaily.get(checkRow(row));
+    }
+
+    public String messageAt(int row) {
+        return settings.decode(settingCodes[checkRow(row)]).message;
+    }
+
+    public String soundTypeAt(int row) {
+        return settings.decode(settingCodes[checkRow(row)]).soundType;
+    }
+
+    // A new AlarmItem on every call; change alarms through the store
+    public AlarmItem toAlarmItem(int row) {
+        Setting setting = settings.decode(settingCodes[checkRow(row)]);
+        AlarmItem alarm = new AlarmItem(AlarmTimingWheel.formatMinuteOfDay(minutes[row]),
+                setting.message, setting.soundType, setting.snooze, repeatDaily.get(row));
+        alarm.setId(ids[row]);
+        alarm.setEnabled(enabled.get(row));
+        return alarm;
+    }
+
+    // Read-only view that creates each AlarmItem as it is read, e.g. for writing a snapshot
+    public List<AlarmItem> asList() {
+        return new AlarmItems();
+    }
+
+    public long maxId() {
+        long max = NO_ID;
+        for (int row = 0; row < size; row++) {
+            max = Math.max(max, ids[row]);
+        }
+        return max;
+    }
+
+    /**
+     * Passes the id of every alarm set for {@code minuteOfDay} to
+     * {@code action}, walking only that minute's rows. The action must not
+     * change the store.
+     */
+    public int forEachAt(int minuteOfDay, LongConsumer action) {
+        int matched = 0;
+        for (int row = minuteHeads[checkMinute(minuteOfDay)]; row != NO_ROW; row = nextInMinute[row]) {
+            action.accept(ids[row]);
+            matched++;
+        }
+        return matched;
+    }
+
+    /**
+     * Passes the id of every alarm due after the last advanced minute up to
+     * and including {@code minuteOfDay} to {@code sink}, with the same
+     * catch-up rules as {@link AlarmTimingWheel#advanceTo}. Disabled alarms
+     * are skipped. The sink may add and remove alarms, but must not advance
+     * the store. Returns the number of alarms fired.
+     */
+    public int advanceTo(int minuteOfDay, LongConsumer sink) {
+        checkMinute(minuteOfDay);
+        if (minuteOfDay == lastMinute) {
+            return 0;
+        }
+        int gap = (minuteOfDay - lastMinute + AlarmTimingWheel.MINUTES_PER_DAY) % AlarmTimingWheel.MINUTES_PER_DAY;
+        int minute = lastMinute < 0 || gap > AlarmTimingWheel.MAX_CATCH_UP_MINUTES
+                ? minuteOfDay
+                : (lastMinute + 1) % AlarmTimingWheel.MINUTES_PER_DAY;
+        lastMinute = minuteOfDay;
+
+        int dueCount = 0;
+        while (true) {
+            for (int row = minuteHeads[minute]; row != NO_ROW; row = nextInMinute[row]) {
+                if (enabled.get(row)) {
+                    if (dueCount == due.length) {
+                        due = Arrays.copyOf(due, dueCount * 2);
+                    }
+                    due[dueCount++] = ids[row];
+                }
+            }
+            if (minute == minuteOfDay) {
+                break;
+            }
+            minute = (minute + 1) % AlarmTimingWheel.MINUTES_PER_DAY;
+        }
+
+        // The sink may remove alarms, which moves rows, so fire by id
+        int fired = 0;
+        for (int i = 0; i < dueCount; i++) {
+            if (rowOf(due[i]) >= 0) {
+                sink.accept(due[i]);
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    // Drops spare capacity, e.g. once a bulk load is done
+    public void trimToSize() {
+        int capacity = Math.max(1, size);
+        if (capacity == ids.length) {
+            return;
+        }
+        resize(capacity);
+        int indexCapacity = indexCapacityFor(capacity);
+        if (indexCapacity < index.length) {
+            rehash(indexCapacity);
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        return row;
+    }
+
+    private static int checkMinute(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= AlarmTimingWheel.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        return minuteOfDay;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            resize(Math.max(required, ids.length + (ids.length >> 1)));
+        }
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        minutes = Arrays.copyOf(minutes, capacity);
+        settingCodes = Arrays.copyOf(settingCodes, capacity);
+        nextInMinute = Arrays.copyOf(nextInMinute, capacity);
+        prevInMinute = Arrays.copyOf(prevInMinute, capacity);
+    }
+
+    private void link(int row) {
+        int head = minuteHeads[minutes[row]];
+        prevInMinute[row] = NO_ROW;
+        nextInMinute[row] = head;
+        if (head != NO_ROW) {
+            prevInMinute[head] = row;
+        }
+        minuteHeads[minutes[row]] = row;
+    }
+
+    private void unlink(int row) {
+        int prev = prevInMinute[row];
+        int next = nextInMinute[row];
+        if (prev != NO_ROW) {
+            nextInMinute[prev] = next;
+        } else {
+            minuteHeads[minutes[row]] = next;
+        }
+        if (next != NO_ROW) {
+            prevInMinute[next] = prev;
+        }
+    }
+
+    // Smallest power of two that keeps the index at most three quarters full
+    private static int indexCapacityFor(int rows) {
+        int needed = rows + rows / 3 + 1;
+        return Math.max(2, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void indexPut(long id, int row) {
+        // size already counts the new row
+        if (size * 4L > index.length * 3L) {
+            rehash(index.length * 2);
+        }
+        int mask = index.length - 1;
+        int slot = hash(id) & mask;
+        while (index[slot] != 0 && ids[index[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = row + 1;
+    }
+
+    private void indexRemove(long id) {
+        int mask = index.length - 1;
+        int slot = hash(id) & mask;
+        while (index[slot] == 0 || ids[index[slot] - 1] != id) {
+            if (index[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Backward-shift the rest of the probe run so lookups need no tombstones
+        int hole = slot;
+        for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+            int home = hash(ids[index[next] - 1]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                index[hole] = index[next];
+                hole = next;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = index;
+        index = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = hash(ids[entry - 1]) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = entry;
+            }
+        }
+    }
+
+    private final class AlarmItems extends AbstractList<AlarmItem> implements RandomAccess {
+        @Override
+        public AlarmItem get(int row) {
+            return toAlarmItem(row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class Setting {
+        final String message;
+        final String soundType;
+        final int snooze;
+
+        Setting(String message, String soundType, int snooze) {
+            this.message = message;
+            this.soundType = soundType;
+            this.snooze = snooze;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Setting)) {
+                return false;
+            }
+            Setting other = (Setting) o;
+            return snooze == other.snooze && Objects.equals(message, other.message)
+                    && Objects.equals(soundType, other.soundType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(message, soundType, snooze);
+        }
+    }
+
+    // Codes are never reclaimed; the same few settings repeat heavily
+    private static class Dictionary<V> {
+        private final Map<V, Integer> codes = new HashMap<>();
+        private final List<V> values = new ArrayList<>();
+
+        int encode(V value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        V decode(int code) {
+            return values.get(code);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.alarmclock.controller;
+
+import com.alarmclock.model.Alarm;
+import com.alarmclock.service.AlarmCache;
+import com.alarmclock.service.AlarmService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/alarms")
+public class AlarmController {
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private AlarmEventBroadcaster eventBroadcaster;
+
+    // Revalidated by the browser on every load; unchanged lists cost a 304
+    @GetMapping
+    public ResponseEntity<List<Alarm>> getAllAlarms(WebRequest request) {
+        AlarmCache.Snapshot snapshot = alarmService.getAlarmSnapshot();
+        if (request.checkNotModified(snapshot.getETag())) {
+            // The 304 and ETag have already been written
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.getETag())
+                .body(snapshot.getAlarms());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Alarm> getAlarm(@PathVariable Long id) {
+        return alarmService.getAlarmById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Alarm createAlarm(@RequestBody Alarm alarm) {
+        alarm.setId(null);
+        return alarmService.saveAlarm(alarm);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Alarm> updateAlarm(@PathVariable Long id, @RequestBody Alarm alarm) {
+        return alarmService.updateAlarm(id, alarm)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAlarm(@PathVariable Long id) {
+        if (alarmService.getAlarmById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        alarmService.deleteAlarm(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Bulk operations run in one transaction with batched statements
+
+    @PostMapping("/bulk")
+    public List<Alarm> createAlarms(@RequestBody List<Alarm> alarms) {
+        return alarmService.saveAlarms(alarms);
+    }
+
+    @PutMapping("/bulk")
+    public List<Alarm> updateAlarms(@RequestBody List<Alarm> alarms) {
+        return alarmService.updateAlarms(alarms);
+    }
+
+    @PostMapping("/bulk/delete")
+    public Map<String, Integer> deleteAlarms(@RequestBody List<Long> ids) {
+        return Collections.singletonMap("deleted", alarmService.deleteAlarms(ids));
+    }
+
+    @PostMapping("/bulk/active")
+    public Map<String, Integer> setAlarmsActive(@RequestParam boolean active, @RequestBody List<Long> ids) {
+        return Collections.singletonMap("updated", alarmService.setAlarmsActive(ids, active));
+    }
+
+    // Stream of created/updated/deleted/fired events for the web client
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return eventBroadcaster.subscribe();
+    }
+}
\ No newline at end of file
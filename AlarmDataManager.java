@@ -1,31 +1,424 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 public class AlarmDataManager {
     private static final String DATA_FILE = "alarms.dat";
-    
-    public static void saveAlarms(List<AlarmItem> alarms) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            oos.writeObject(alarms);
+    private static final String JOURNAL_FILE = "alarms.journal";
+    // Compact once the journal outgrows both this floor and the live alarm count,
+    // which keeps the snapshot rewrite amortized O(1) per mutation
+    private static final int COMPACT_MIN_RECORDS = 1000;
+    // fsync after this many records; with more than 1 a timer syncs the rest
+    private static final int SYNC_EVERY_RECORDS = Integer.getInteger("alarm.journal.syncEvery", 1);
+    private static final long SYNC_INTERVAL_MILLIS = Long.getLong("alarm.journal.syncMillis", 1000L);
+
+    // Last snapshot, decoded record by record as it is read
+    private static List<AlarmItem> snapshot = new ArrayList<>();
+    // Alarms put since the snapshot, and ids removed since; together with the
+    // snapshot these are the live alarms
+    private static final Map<Long, AlarmItem> changes = new LinkedHashMap<>();
+    private static final Set<Long> removed = new HashSet<>();
+    // Set by loadAlarmStore(); the live alarms are then its rows, and the
+    // three fields above stay empty
+    private static AlarmColumnStore store;
+    private static AlarmJournal journal;
+    private static boolean loaded;
+    private static long nextId = 1;
+
+    public static synchronized void saveAlarms(List<AlarmItem> alarms) {
+        try {
+            for (AlarmItem alarm : alarms) {
+                assignId(alarm);
+            }
+            snapshot = new ArrayList<>(alarms);
+            changes.clear();
+            removed.clear();
+            store = null;
+            compact();
+            loaded = true;
             System.out.println("Alarms saved successfully");
         } catch (IOException e) {
             System.err.println("Error saving alarms: " + e.getMessage());
         }
     }
-    
-    @SuppressWarnings("unchecked")
-    public static List<AlarmItem> loadAlarms() {
+
+    /**
+     * Loads the snapshot and replays the journal over it. Snapshot records are
+     * decoded when the returned list first reads them, and the same AlarmItem
+     * is returned on later reads.
+     */
+    public static synchronized List<AlarmItem> loadAlarms() {
+        snapshot = new ArrayList<>();
+        changes.clear();
+        removed.clear();
+        store = null;
+        nextId = 1;
+        loaded = true;
+
+        File file = new File(DATA_FILE);
+        boolean migrate = false;
+        try {
+            if (file.exists() && AlarmBinaryFormat.isBinarySnapshot(file)) {
+                snapshot = AlarmBinaryFormat.read(file);
+            } else if (file.exists()) {
+                snapshot = readLegacySnapshot(file);
+                migrate = true;
+            }
+        } catch (IOException e) {
+            setAside(file, e);
+        }
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            long id = snapshotIdAt(i);
+            // Snapshots written before alarms had ids
+            migrate |= id == 0;
+            nextId = Math.max(nextId, id + 1);
+        }
+        if (migrate) {
+            List<AlarmItem> decoded = new ArrayList<>(snapshot);
+            for (AlarmItem alarm : decoded) {
+                assignId(alarm);
+            }
+            snapshot = decoded;
+        }
+
+        try {
+            openJournal().replay(new AlarmJournal.Replay() {
+                @Override
+                public void put(AlarmItem alarm) {
+                    putLive(alarm);
+                }
+
+                @Override
+                public void remove(long id) {
+                    removeLive(id);
+                }
+            });
+            for (long id : changes.keySet()) {
+                nextId = Math.max(nextId, id + 1);
+            }
+            // Migrate serialized snapshots to the binary format right away
+            if (migrate) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading alarms: " + e.getMessage());
+        }
+        return liveAlarms();
+    }
+
+    /**
+     * Loads the snapshot and journal into a column store, without keeping an
+     * AlarmItem per alarm. The store becomes the live alarm set: the record
+     * methods change it once their journal record is written, and it must
+     * not be changed any other way.
+     */
+    public static synchronized AlarmColumnStore loadAlarmStore() {
+        File file = new File(DATA_FILE);
+        AlarmColumnStore live = new AlarmColumnStore();
+        try {
+            if (file.exists() && !AlarmBinaryFormat.isBinarySnapshot(file)) {
+                // Migrates the serialized snapshot to the binary format
+                loadAlarms();
+            }
+            if (file.exists() && AlarmBinaryFormat.isBinarySnapshot(file)) {
+                AlarmBinaryFormat.Snapshot snapshot = AlarmBinaryFormat.read(file);
+                if (hasUnassignedIds(snapshot)) {
+                    // loadAlarms() assigns the ids and rewrites the snapshot
+                    loadAlarms();
+                    snapshot = AlarmBinaryFormat.read(file);
+                }
+                live = AlarmColumnStore.from(snapshot);
+            }
+        } catch (IOException e) {
+            setAside(file, e);
+        }
+
+        AlarmColumnStore target = live;
+        try {
+            openJournal().replay(new AlarmJournal.Replay() {
+                @Override
+                public void put(AlarmItem alarm) {
+                    try {
+                        target.put(alarm);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Skipping alarm " + alarm.getId() + ": " + e.getMessage());
+                    }
+                }
+
+                @Override
+                public void remove(long id) {
+                    target.remove(id);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading alarms: " + e.getMessage());
+        }
+        live.trimToSize();
+
+        snapshot = new ArrayList<>();
+        changes.clear();
+        removed.clear();
+        store = live;
+        nextId = live.maxId() + 1;
+        loaded = true;
+        return live;
+    }
+
+    // Folds the journal into the snapshot, e.g. on exit
+    public static synchronized void compactAlarms() {
+        try {
+            if (loaded) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving alarms: " + e.getMessage());
+        }
+    }
+
+    // The record methods return false when the change could not be saved
+    public static synchronized boolean recordAdd(AlarmItem alarm) {
+        ensureLoaded();
+        assignId(alarm);
+        return append(alarm.getId(), alarm);
+    }
+
+    public static synchronized boolean recordUpdate(AlarmItem alarm) {
+        ensureLoaded();
+        assignId(alarm);
+        return append(alarm.getId(), alarm);
+    }
+
+    public static synchronized boolean recordRemove(AlarmItem alarm) {
+        return recordRemove(alarm.getId());
+    }
+
+    public static synchronized boolean recordRemove(long id) {
+        ensureLoaded();
+        return id == 0 || append(id, null);
+    }
+
+    // Puts {@code alarm}, or removes {@code id} when it is null
+    private static boolean append(long id, AlarmItem alarm) {
+        try {
+            if (alarm != null && store != null) {
+                // The store keeps the minute of day, so check the time before it is journaled
+                alarm.getMinuteOfDay();
+            }
+            AlarmJournal log = openJournal();
+            // Memory only changes once the record is in the journal
+            if (alarm == null) {
+                log.appendRemove(id);
+                removeLive(id);
+            } else {
+                log.appendPut(alarm);
+                putLive(alarm);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error saving alarms: " + e.getMessage());
+            return false;
+        }
+        try {
+            if (journal.getRecordCount() > Math.max(COMPACT_MIN_RECORDS, liveCount())) {
+                compact();
+            }
+        } catch (IOException e) {
+            // The change is in the journal; compaction is retried on the next one
+            System.err.println("Error compacting alarms: " + e.getMessage());
+        }
+        return true;
+    }
+
+    // Folds the journal into a fresh snapshot, then empties the journal
+    private static void compact() throws IOException {
+        File target = new File(DATA_FILE);
+        File temp = new File(DATA_FILE + ".tmp");
+        AlarmBinaryFormat.write(temp, store != null ? store.asList() : liveAlarms());
+        Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename must be on disk before the journal it replaces is emptied
+        syncDirectory(target.getAbsoluteFile().getParentFile());
+        if (store != null) {
+            openJournal().reset();
+            return;
+        }
+        List<AlarmItem> compacted = AlarmBinaryFormat.read(target);
+        // Replaying stale records over the new snapshot is harmless, since puts
+        // carry full state and removes are idempotent
+        openJournal().reset();
+        snapshot = compacted;
+        changes.clear();
+        removed.clear();
+    }
+
+    private static void putLive(AlarmItem alarm) {
+        if (store != null) {
+            store.put(alarm);
+            return;
+        }
+        changes.put(alarm.getId(), alarm);
+        removed.remove(alarm.getId());
+    }
+
+    private static void removeLive(long id) {
+        if (store != null) {
+            store.remove(id);
+            return;
+        }
+        changes.remove(id);
+        removed.add(id);
+    }
+
+    private static int liveCount() {
+        return store != null ? store.size() : snapshot.size() + changes.size();
+    }
+
+    private static boolean hasUnassignedIds(AlarmBinaryFormat.Snapshot snapshot) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.idAt(i) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Moves an unreadable snapshot out of the way, so the next compaction
+    // cannot replace it with the alarms that did load
+    private static void setAside(File file, IOException e) {
+        System.err.println("Error loading alarms: " + e.getMessage());
+        File aside = new File(DATA_FILE + ".corrupt");
+        try {
+            Files.move(file.toPath(), aside.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Kept the unreadable alarms in " + aside);
+        } catch (IOException moveFailed) {
+            System.err.println("Error keeping unreadable alarms: " + moveFailed.getMessage());
+        }
+    }
+
+    private static long snapshotIdAt(int index) {
+        return snapshot instanceof AlarmBinaryFormat.Snapshot
+                ? ((AlarmBinaryFormat.Snapshot) snapshot).idAt(index)
+                : snapshot.get(index).getId();
+    }
+
+    // Snapshot order with changed alarms in place, then alarms added since
+    private static List<AlarmItem> liveAlarms() {
+        int[] rows = new int[snapshot.size()];
+        Map<Long, AlarmItem> added = new LinkedHashMap<>(changes);
+        List<AlarmItem> replaced = new ArrayList<>();
+        int kept = 0;
+        for (int i = 0; i < rows.length; i++) {
+            long id = snapshotIdAt(i);
+            AlarmItem changed = added.remove(id);
+            if (changed != null) {
+                // Negative rows point into replaced
+                rows[kept++] = -1 - replaced.size();
+                replaced.add(changed);
+            } else if (!removed.contains(id)) {
+                rows[kept++] = i;
+            }
+        }
+        return new LiveAlarms(snapshot, Arrays.copyOf(rows, kept), replaced, new ArrayList<>(added.values()));
+    }
+
+    // Read-only; decodes each snapshot record on first access and keeps it
+    private static final class LiveAlarms extends AbstractList<AlarmItem> implements RandomAccess {
+        private final List<AlarmItem> snapshot;
+        private final int[] rows;
+        private final List<AlarmItem> replaced;
+        private final List<AlarmItem> added;
+        private final AlarmItem[] decoded;
+
+        LiveAlarms(List<AlarmItem> snapshot, int[] rows, List<AlarmItem> replaced, List<AlarmItem> added) {
+            this.snapshot = snapshot;
+            this.rows = rows;
+            this.replaced = replaced;
+            this.added = added;
+            this.decoded = new AlarmItem[rows.length];
+        }
+
+        @Override
+        public synchronized AlarmItem get(int index) {
+            if (index >= rows.length) {
+                return added.get(index - rows.length);
+            }
+            AlarmItem alarm = decoded[index];
+            if (alarm == null) {
+                int row = rows[index];
+                alarm = row < 0 ? replaced.get(-1 - row) : snapshot.get(row);
+                decoded[index] = alarm;
+            }
+            return alarm;
+        }
+
+        @Override
+        public int size() {
+            return rows.length + added.size();
+        }
+    }
+
+    /**
+     * Opens the snapshot for read-only use without decoding every alarm up
+     * front. Changes still in the journal are not included.
+     */
+    public static synchronized List<AlarmItem> openSnapshot() throws IOException {
         File file = new File(DATA_FILE);
         if (!file.exists()) {
             return new ArrayList<>();
         }
-        
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+        if (!AlarmBinaryFormat.isBinarySnapshot(file)) {
+            return readLegacySnapshot(file);
+        }
+        return AlarmBinaryFormat.open(file);
+    }
+
+    // Snapshots written with Java serialization before the binary format
+    @SuppressWarnings("unchecked")
+    private static List<AlarmItem> readLegacySnapshot(File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
             return (List<AlarmItem>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading alarms: " + e.getMessage());
-            return new ArrayList<>();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void syncDirectory(File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported everywhere (Windows cannot open a directory as a channel)
+        }
+    }
+
+    private static AlarmJournal openJournal() throws IOException {
+        if (journal == null) {
+            journal = new AlarmJournal(new File(JOURNAL_FILE), SYNC_EVERY_RECORDS, SYNC_INTERVAL_MILLIS);
+        }
+        return journal;
+    }
+
+    private static void ensureLoaded() {
+        if (!loaded) {
+            loadAlarms();
+        }
+    }
+
+    private static void assignId(AlarmItem alarm) {
+        if (alarm.getId() == 0) {
+            alarm.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, alarm.getId() + 1);
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
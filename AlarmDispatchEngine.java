@@ -0,0 +1,225 @@
+package com.alarmclock.scheduling;
+
+import com.alarmclock.metrics.AlarmLatencyMetrics;
+import com.alarmclock.model.Alarm;
+import com.alarmclock.service.AlarmBulkChangedEvent;
+import com.alarmclock.service.AlarmChangedEvent;
+import com.alarmclock.service.AlarmService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires stored alarms on the server. Active alarms are loaded once at
+ * startup into an {@link AlarmTimingWheel}; after that a single timer wakes
+ * at each minute boundary and only visits the alarms due in that minute,
+ * and saves or deletes through AlarmService move just the one alarm. Each
+ * fire is published as an {@link AlarmFiredEvent} from a small dispatch
+ * pool; one-shot alarms are deactivated in one update per minute, unless
+ * they were moved or made repeating in the meantime.
+ */
+@Component
+public class AlarmDispatchEngine {
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${alarm.dispatch.threads:4}")
+    private int dispatchThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Copy of the alarm as scheduled, so a fire never reads a mutable entity
+    private static final class ScheduledAlarm {
+        final long id;
+        final int minuteOfDay;
+        final String time;
+        final String message;
+        final String sound;
+        final int snooze;
+        final boolean repeat;
+
+        ScheduledAlarm(Alarm alarm, int minuteOfDay) {
+            this.id = alarm.getId();
+            this.minuteOfDay = minuteOfDay;
+            this.time = alarm.getTime();
+            this.message = alarm.getMessage();
+            this.sound = alarm.getSound();
+            this.snooze = alarm.getSnooze();
+            this.repeat = alarm.isRepeat();
+        }
+    }
+
+    // Guarded by this
+    private final AlarmTimingWheel<ScheduledAlarm> wheel = new AlarmTimingWheel<>();
+    private final Map<Long, AlarmTimingWheel.Entry<ScheduledAlarm>> entries = new HashMap<>();
+    private final List<ScheduledAlarm> due = new ArrayList<>();
+
+    private final AtomicLong firedCount = new AtomicLong();
+    private ScheduledExecutorService ticker;
+    private ExecutorService dispatcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (this) {
+            if (ticker != null) {
+                return;
+            }
+            // Streamed so the whole table is never held as entities at once
+            alarmService.forEachAlarmDueBetween(0, AlarmTimingWheel.MINUTES_PER_DAY - 1, this::schedule);
+            // The tick stays on one platform thread so minute boundaries are not delayed
+            ticker = Executors.newSingleThreadScheduledExecutor(AlarmExecutors.daemonThreads("alarm-dispatch-tick"));
+            dispatcher = AlarmExecutors.newExecutor("alarm-dispatch", dispatchThreads, virtualThreads);
+        }
+        System.out.println("Alarm dispatch engine started with " + getScheduledCount() + " active alarms");
+        scheduleTick(nextMinuteBoundary(System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Applies one saved or deleted alarm. Inactive alarms and alarms whose
+     * time cannot be parsed are simply left off the wheel.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAlarmChanged(AlarmChangedEvent event) {
+        wheel.cancel(entries.remove(event.getAlarmId()));
+        if (!event.isDeleted()) {
+            schedule(event.getAlarm());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAlarmsChanged(AlarmBulkChangedEvent event) {
+        for (Long id : event.getDeletedIds()) {
+            wheel.cancel(entries.remove(id));
+        }
+        for (Alarm alarm : event.getSaved()) {
+            wheel.cancel(entries.remove(alarm.getId()));
+            schedule(alarm);
+        }
+    }
+
+    public synchronized int getScheduledCount() {
+        return wheel.size();
+    }
+
+    public long getFiredCount() {
+        return firedCount.get();
+    }
+
+    private void schedule(Alarm alarm) {
+        Integer minuteOfDay = alarm.getMinuteOfDay() != null ? alarm.getMinuteOfDay() : Alarm.toMinuteOfDay(alarm.getTime());
+        if (alarm.getId() == null || !alarm.isActive() || minuteOfDay == null) {
+            return;
+        }
+        entries.put(alarm.getId(), wheel.schedule(minuteOfDay, new ScheduledAlarm(alarm, minuteOfDay)));
+    }
+
+    private void scheduleTick(long boundaryMillis) {
+        long delay = Math.max(0, boundaryMillis - System.currentTimeMillis());
+        try {
+            ticker.schedule(() -> tick(boundaryMillis), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    // Runs on the tick thread once per minute boundary
+    private void tick(long boundaryMillis) {
+        try {
+            fireDue(boundaryMillis);
+        } finally {
+            // Always re-arm, or one failed tick would stop every later alarm
+            scheduleTick(nextMinuteBoundary(Math.max(boundaryMillis, System.currentTimeMillis())));
+        }
+    }
+
+    private void fireDue(long boundaryMillis) {
+        // Take the minute from the boundary, not the clock, in case the timer woke a little early
+        int minuteOfDay = AlarmTimingWheel.toMinuteOfDay(
+                LocalTime.ofInstant(Instant.ofEpochMilli(boundaryMillis), ZoneId.systemDefault()));
+        List<ScheduledAlarm> fired;
+        // One-shot ids by the minute they were scheduled for, so an edit since then is not undone
+        Map<Integer, List<Long>> expired = new HashMap<>();
+        synchronized (this) {
+            wheel.advanceTo(minuteOfDay, due::add);
+            fired = new ArrayList<>(due);
+            due.clear();
+            for (ScheduledAlarm alarm : fired) {
+                if (!alarm.repeat) {
+                    wheel.cancel(entries.remove(alarm.id));
+                    expired.computeIfAbsent(alarm.minuteOfDay, m -> new ArrayList<>()).add(alarm.id);
+                }
+            }
+        }
+
+        for (ScheduledAlarm alarm : fired) {
+            // Minutes caught up after a late tick were due before this boundary
+            long dueMillis = alarm.minuteOfDay == minuteOfDay
+                    ? boundaryMillis
+                    : AlarmLatencyMetrics.dueMillisForMinuteOfDay(alarm.minuteOfDay);
+            AlarmLatencyMetrics.Firing firing = AlarmLatencyMetrics.get().detected(dueMillis);
+            try {
+                dispatcher.execute(() -> dispatch(alarm, dueMillis, firing));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the alarms taken off the wheel are still switched off below
+                break;
+            }
+        }
+
+        for (Map.Entry<Integer, List<Long>> minute : expired.entrySet()) {
+            try {
+                // Through the service so the cache and web clients see it too
+                alarmService.deactivateFiredAlarms(minute.getKey(), minute.getValue());
+            } catch (RuntimeException e) {
+                System.err.println("Error deactivating fired alarms: " + e.getMessage());
+            }
+        }
+    }
+
+    private void dispatch(ScheduledAlarm alarm, long dueMillis, AlarmLatencyMetrics.Firing firing) {
+        firing.mark(AlarmLatencyMetrics.Stage.DISPATCHED);
+        try {
+            eventPublisher.publishEvent(new AlarmFiredEvent(alarm.id, alarm.time, alarm.message, alarm.sound,
+                    alarm.snooze, alarm.repeat, Instant.ofEpochMilli(dueMillis), Instant.now()));
+            firedCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            System.err.println("Error dispatching alarm " + alarm.id + ": " + e.getMessage());
+        }
+    }
+
+    private static long nextMinuteBoundary(long epochMillis) {
+        return (epochMillis / MINUTE_MILLIS + 1) * MINUTE_MILLIS;
+    }
+}
\ No newline at end of file
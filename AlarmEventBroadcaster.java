@@ -0,0 +1,278 @@
+package com.alarmclock.controller;
+
+import com.alarmclock.scheduling.AlarmExecutors;
+import com.alarmclock.scheduling.AlarmFiredEvent;
+import com.alarmclock.service.AlarmBulkChangedEvent;
+import com.alarmclock.service.AlarmChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes alarm changes and fires to connected browsers as Server-Sent
+ * Events named created, updated, deleted and fired, or reload after a bulk
+ * operation, which clients answer by fetching the list. Each event is
+ * serialized once and shared by every subscriber. A subscriber holds at most
+ * {@code alarm.events.queueSize} pending events; one that falls further
+ * behind is disconnected, and its browser reconnects and reloads the list.
+ * Connections are async, so idle clients hold no request thread. A write
+ * that blocks for longer than {@code alarm.events.sendTimeoutMillis} drops
+ * its client, which closes the connection and frees the sender thread for
+ * everyone else.
+ */
+@Component
+public class AlarmEventBroadcaster {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${alarm.events.queueSize:64}")
+    private int queueSize;
+
+    @Value("${alarm.events.timeoutMillis:1800000}")
+    private long timeoutMillis;
+
+    @Value("${alarm.events.senderThreads:4}")
+    private int senderThreads;
+
+    @Value("${alarm.events.heartbeatSeconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${alarm.events.sendTimeoutMillis:5000}")
+    private long sendTimeoutMillis;
+
+    // With virtual threads a client stuck in a write no longer ties up a shared sender
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Shared by every subscriber's queue; name is null for a heartbeat comment
+    private static final class Message {
+        final long id;
+        final String name;
+        final String json;
+
+        Message(long id, String name, String json) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+        }
+    }
+
+    private static final Message HEARTBEAT = new Message(0, null, null);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        senders = AlarmExecutors.newExecutor("alarm-events", senderThreads, virtualThreads);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(AlarmExecutors.daemonThreads("alarm-events-heartbeat"));
+        if (heartbeatSeconds > 0) {
+            heartbeat.scheduleAtFixedRate(() -> broadcast(HEARTBEAT),
+                    heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+        if (sendTimeoutMillis > 0) {
+            long period = Math.max(100, sendTimeoutMillis / 4);
+            heartbeat.scheduleWithFixedDelay(this::dropStalledSubscribers, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        senders.shutdown();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        try {
+            // Held until the response starts, then sent with the headers so the browser sees the stream open
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlarmChanged(AlarmChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                publish("created", event.getAlarm());
+                break;
+            case UPDATED:
+                publish("updated", event.getAlarm());
+                break;
+            default:
+                publish("deleted", Collections.singletonMap("id", event.getAlarmId()));
+                break;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlarmsChanged(AlarmBulkChangedEvent event) {
+        publish("reload", Collections.singletonMap("count", event.size()));
+    }
+
+    @EventListener
+    public void onAlarmFired(AlarmFiredEvent event) {
+        publish("fired", event);
+    }
+
+    private void publish(String name, Object payload) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            System.err.println("Error serializing " + name + " event: " + e.getMessage());
+            return;
+        }
+        broadcast(new Message(sequence.incrementAndGet(), name, json));
+    }
+
+    private void broadcast(Message message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    // Runs on the heartbeat thread
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                subscriber.drop();
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> pending = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        // Set while a sender thread owns this subscriber, so its events stay in order
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean sending;
+        private volatile long sendStartedNanos;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            if (!pending.offer(message)) {
+                if (message != HEARTBEAT) {
+                    close();
+                }
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while ((message = pending.poll()) != null) {
+                    sendStartedNanos = System.nanoTime();
+                    sending = true;
+                    if (message.name == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(message.id))
+                                .name(message.name)
+                                .data(message.json, MediaType.APPLICATION_JSON));
+                    }
+                    sending = false;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, or was dropped while this write was blocked
+                close();
+                return;
+            } finally {
+                sending = false;
+                draining.set(false);
+            }
+            // An event queued while this drain was finishing would otherwise wait for the next one
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        boolean isStalled(long now) {
+            return sending && now - sendStartedNanos > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        }
+
+        // Failing the async request makes the container close the connection, which ends the blocked write
+        void drop() {
+            if (subscribers.remove(this)) {
+                pending.clear();
+                try {
+                    emitter.completeWithError(new IOException("Event stream write timed out"));
+                } catch (IllegalStateException e) {
+                    // Already completed
+                }
+            }
+        }
+
+        void close() {
+            if (subscribers.remove(this)) {
+                pending.clear();
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
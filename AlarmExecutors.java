@@ -0,0 +1,58 @@
+package com.alarmclock.scheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for the server's background work. In virtual-thread mode every
+ * task gets its own virtual thread, so a task blocked on the database or a
+ * slow client holds up nothing else; otherwise tasks share a fixed pool of
+ * daemon platform threads. Virtual threads are looked up by reflection so
+ * the code still builds for Java 17.
+ */
+public final class AlarmExecutors {
+
+    private AlarmExecutors() {
+    }
+
+    public static ExecutorService newExecutor(String name, int platformThreads, boolean virtualThreads) {
+        if (virtualThreads) {
+            ExecutorService executor = newVirtualThreadExecutor(name);
+            if (executor != null) {
+                return executor;
+            }
+            System.err.println("Error creating " + name + " virtual threads: Java 21 or later is required");
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), daemonThreads(name));
+    }
+
+    // Thread.ofVirtual and Executors.newThreadPerTaskExecutor are final from Java 21
+    public static boolean isVirtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory())
+    private static ExecutorService newVirtualThreadExecutor(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
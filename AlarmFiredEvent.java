@@ -0,0 +1,62 @@
+package com.alarmclock.scheduling;
+
+import java.time.Instant;
+
+/**
+ * Published by AlarmDispatchEngine for every alarm that goes off. Carries a
+ * copy of the alarm as it was scheduled, so listeners need no database read.
+ */
+public class AlarmFiredEvent {
+    private final long alarmId;
+    private final String time;
+    private final String message;
+    private final String sound;
+    private final int snooze;
+    private final boolean repeat;
+    private final Instant dueAt;
+    private final Instant firedAt;
+
+    public AlarmFiredEvent(long alarmId, String time, String message, String sound, int snooze,
+                           boolean repeat, Instant dueAt, Instant firedAt) {
+        this.alarmId = alarmId;
+        this.time = time;
+        this.message = message;
+        this.sound = sound;
+        this.snooze = snooze;
+        this.repeat = repeat;
+        this.dueAt = dueAt;
+        this.firedAt = firedAt;
+    }
+
+    public long getAlarmId() {
+        return alarmId;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getSound() {
+        return sound;
+    }
+
+    public int getSnooze() {
+        return snooze;
+    }
+
+    public boolean isRepeat() {
+        return repeat;
+    }
+
+    public Instant getDueAt() {
+        return dueAt;
+    }
+
+    public Instant getFiredAt() {
+        return firedAt;
+    }
+}
\ No newline at end of file
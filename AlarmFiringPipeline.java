@@ -0,0 +1,138 @@
+import javax.swing.*;
+import java.awt.Component;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fires due alarms without blocking the event dispatch thread. Alarms are
+ * queued on a bounded queue and picked up by worker threads, which start the
+ * sound; each alarm then gets its own non-modal Snooze/Dismiss dialog. The
+ * user's answer comes back through the Listener on the EDT, so alarms due
+ * in the same minute all ring at once and the clock keeps ticking.
+ */
+public class AlarmFiringPipeline<T> {
+    public enum Acknowledgement { SNOOZE, DISMISS }
+
+    public interface Sound<T> {
+        // Called on a worker thread; the returned action stops the sound
+        Runnable play(T alarm);
+    }
+
+    public interface Listener<T> {
+        // Called on the event dispatch thread, once per fired alarm
+        void acknowledged(T alarm, Acknowledgement acknowledgement);
+    }
+
+    private static final Object[] OPTIONS = {"Snooze", "Dismiss"};
+    private static final Object[] DISMISS_ONLY = {"Dismiss"};
+
+    private final Component parent;
+    private final Object[] options;
+    private final Function<T, String> message;
+    private final Sound<T> sound;
+    private final Listener<T> listener;
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    public AlarmFiringPipeline(Component parent, int queueCapacity, int workerThreads,
+                               Function<T, String> message, Sound<T> sound, Listener<T> listener) {
+        this(parent, queueCapacity, workerThreads, true, message, sound, listener);
+    }
+
+    // Without snoozing, the dialogs only offer Dismiss
+    public AlarmFiringPipeline(Component parent, int queueCapacity, int workerThreads, boolean snoozable,
+                               Function<T, String> message, Sound<T> sound, Listener<T> listener) {
+        this.parent = parent;
+        this.options = snoozable ? OPTIONS : DISMISS_ONLY;
+        this.message = message;
+        this.sound = sound;
+        this.listener = listener;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "alarm-firing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues {@code alarm} to fire. Returns false, and drops the alarm, if
+     * the queue is full.
+     */
+    public boolean fire(T alarm) {
+        try {
+            workers.execute(() -> ring(alarm));
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            System.err.println("Alarm queue full, dropped alarm: " + message.apply(alarm));
+            return false;
+        }
+    }
+
+    // A non-modal message, so the caller is not held up; call on the EDT
+    public void showNotice(String text) {
+        JOptionPane pane = new JOptionPane(text, JOptionPane.INFORMATION_MESSAGE);
+        JDialog dialog = pane.createDialog(parent, "Alarm");
+        dialog.setModal(false);
+        pane.addPropertyChangeListener(JOptionPane.VALUE_PROPERTY, e -> dialog.dispose());
+        dialog.setVisible(true);
+    }
+
+    public int getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void ring(T alarm) {
+        Runnable stop;
+        try {
+            stop = sound.play(alarm);
+        } catch (RuntimeException e) {
+            System.err.println("Error playing alarm sound: " + e.getMessage());
+            stop = () -> { };
+        }
+        Runnable stopSound = stop;
+        SwingUtilities.invokeLater(() -> showNotification(alarm, stopSound));
+    }
+
+    private void showNotification(T alarm, Runnable stopSound) {
+        JOptionPane pane = new JOptionPane(message.apply(alarm), JOptionPane.WARNING_MESSAGE,
+                JOptionPane.DEFAULT_OPTION, null, options, options[0]);
+        JDialog dialog = pane.createDialog(parent, "Alarm");
+        dialog.setModal(false);
+        dialog.setAlwaysOnTop(true);
+
+        // The dialog hides itself when the value changes; closing the window
+        // without choosing counts as a dismiss
+        pane.addPropertyChangeListener(JOptionPane.VALUE_PROPERTY, e -> {
+            if (e.getNewValue() == JOptionPane.UNINITIALIZED_VALUE || !dialog.isDisplayable()) {
+                return;
+            }
+            dialog.dispose();
+            stopInBackground(stopSound);
+            Acknowledgement acknowledgement = options == OPTIONS && OPTIONS[0].equals(e.getNewValue())
+                    ? Acknowledgement.SNOOZE
+                    : Acknowledgement.DISMISS;
+            listener.acknowledged(alarm, acknowledgement);
+        });
+        dialog.setVisible(true);
+    }
+
+    private void stopInBackground(Runnable stopSound) {
+        try {
+            workers.execute(stopSound);
+        } catch (RejectedExecutionException e) {
+            stopSound.run();
+        }
+    }
+}
@@ -1,13 +1,17 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
 import java.io.Serializable;
 
 public class AlarmItem implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    private long id;
     private String time;
     private String message;
     private String soundType;
     private boolean repeatDaily;
     private boolean enabled;
+    private int snooze;
 
     public AlarmItem(String time, String message, String soundType, boolean repeatDaily) {
         this.time = time;
@@ -17,10 +21,31 @@ public class AlarmItem implements Serializable {
         this.enabled = true;
     }
 
+    public AlarmItem(String time, String message, String soundType, int snooze, boolean repeatDaily) {
+        this(time, message, soundType, repeatDaily);
+        this.snooze = snooze;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public String getTime() {
         return time;
     }
 
+    public void setTime(String time) {
+        this.time = time;
+    }
+
+    public int getMinuteOfDay() {
+        return AlarmTimingWheel.toMinuteOfDay(time);
+    }
+
     public String getMessage() {
         return message;
     }
@@ -41,6 +66,10 @@ public class AlarmItem implements Serializable {
         this.enabled = enabled;
     }
 
+    public int getSnooze() {
+        return snooze;
+    }
+
     @Override
     public String toString() {
         return time + " - " + message + " (" + (repeatDaily ? "Daily" : "Once") + ")";
@@ -0,0 +1,264 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of alarm mutations. Each record is framed as
+ * [payload length][CRC32 of payload][payload], so a record torn by a crash is
+ * detected on replay and cut off instead of poisoning the whole file.
+ */
+public class AlarmJournal implements AutoCloseable {
+    public interface Replay {
+        void put(AlarmItem alarm);
+
+        void remove(long id);
+    }
+
+    static final byte OP_PUT = 1;
+    static final byte OP_REMOVE = 2;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final File file;
+    private final int syncEveryRecords;
+    private final FileChannel channel;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService syncer;
+    private int unsyncedRecords;
+    private int recordCount;
+
+    public AlarmJournal(File file, int syncEveryRecords, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.syncEveryRecords = Math.max(1, syncEveryRecords);
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+
+        if (syncIntervalMillis > 0 && this.syncEveryRecords > 1) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "alarm-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly,
+                    syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Feeds every intact record to {@code target} in order. Anything after
+     * the first short or corrupt record is truncated away.
+     */
+    public synchronized int replay(Replay target) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        int applied = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            long expectedCrc = header.getInt() & 0xFFFFFFFFL;
+            if (length <= 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if (crc.getValue() != expectedCrc) {
+                break;
+            }
+
+            apply(payload.array(), target);
+            position += HEADER_BYTES + length;
+            applied++;
+        }
+
+        if (position < size) {
+            System.err.println("Discarding " + (size - position) + " bytes of torn alarm journal");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        recordCount = applied;
+        return applied;
+    }
+
+    public synchronized void appendPut(AlarmItem alarm) throws IOException {
+        recordBuffer.reset();
+        recordOut.writeByte(OP_PUT);
+        recordOut.writeLong(alarm.getId());
+        writeString(alarm.getTime());
+        writeString(alarm.getMessage());
+        writeString(alarm.getSoundType());
+        recordOut.writeInt(alarm.getSnooze());
+        recordOut.writeBoolean(alarm.isRepeatDaily());
+        recordOut.writeBoolean(alarm.isEnabled());
+        append();
+    }
+
+    public synchronized void appendRemove(long id) throws IOException {
+        recordBuffer.reset();
+        recordOut.writeByte(OP_REMOVE);
+        recordOut.writeLong(id);
+        append();
+    }
+
+    // Drops all records once their effect has been captured in a snapshot
+    public synchronized void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        unsyncedRecords = 0;
+        recordCount = 0;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized void sync() throws IOException {
+        if (unsyncedRecords > 0) {
+            channel.force(false);
+            unsyncedRecords = 0;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        sync();
+        channel.close();
+    }
+
+    private void append() throws IOException {
+        recordOut.flush();
+        if (recordBuffer.size() > MAX_RECORD_BYTES) {
+            // Replay would stop at this record and drop every later one
+            throw new IOException("Alarm record too large: " + recordBuffer.size() + " bytes");
+        }
+        byte[] payload = recordBuffer.toByteArray();
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length);
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        record.flip();
+        long start = channel.position();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            // Cut off the partial record, or replay would stop there and hide every later one
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException truncateFailed) {
+                e.addSuppressed(truncateFailed);
+            }
+            throw e;
+        }
+
+        recordCount++;
+        if (++unsyncedRecords >= syncEveryRecords) {
+            channel.force(false);
+            unsyncedRecords = 0;
+        }
+    }
+
+    // UTF-8 byte length, -1 for null, then the bytes; unlike writeUTF there
+    // is no 64 KB limit
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            recordOut.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        recordOut.writeInt(bytes.length);
+        recordOut.write(bytes);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+    }
+
+    private synchronized void syncQuietly() {
+        try {
+            if (channel.isOpen()) {
+                sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error syncing alarm journal: " + e.getMessage());
+        }
+    }
+
+    private static void apply(byte[] payload, Replay target) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        long id = in.readLong();
+        if (op == OP_REMOVE) {
+            target.remove(id);
+            return;
+        }
+        if (op != OP_PUT) {
+            return;
+        }
+
+        String time = readString(in);
+        String message = readString(in);
+        String soundType = readString(in);
+        int snooze = in.readInt();
+        boolean repeatDaily = in.readBoolean();
+        boolean enabled = in.readBoolean();
+
+        AlarmItem alarm = new AlarmItem(time, message, soundType, snooze, repeatDaily);
+        alarm.setId(id);
+        alarm.setEnabled(enabled);
+        target.put(alarm);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
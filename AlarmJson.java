@@ -0,0 +1,394 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * Small streaming JSON codec for AlarmItem, using the field names the web
+ * client and the Spring Alarm entity share: id, time, message, sound,
+ * repeat, snooze and active. Reads a character at a time from a Reader and
+ * writes straight to a Writer, so no document is built up as a String.
+ * Unknown fields are skipped, up to a nesting limit; times must be HH:mm.
+ */
+public class AlarmJson {
+    // Longest string value accepted, so a hostile body cannot grow without bound
+    private static final int MAX_STRING_LENGTH = 8192;
+    // Deepest nesting skipped inside unknown fields, so skipping cannot overflow the stack
+    private static final int MAX_DEPTH = 64;
+
+    /** Malformed or invalid JSON input. */
+    public static class JsonException extends IOException {
+        public JsonException(String message) {
+            super(message);
+        }
+    }
+
+    public static void writeAlarms(Writer out, Collection<AlarmItem> alarms) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (AlarmItem alarm : alarms) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            writeAlarm(out, alarm);
+        }
+        out.write(']');
+    }
+
+    public static void writeAlarm(Writer out, AlarmItem alarm) throws IOException {
+        out.write("{\"id\":");
+        out.write(Long.toString(alarm.getId()));
+        out.write(",\"time\":");
+        writeString(out, alarm.getTime());
+        out.write(",\"message\":");
+        writeString(out, alarm.getMessage());
+        out.write(",\"sound\":");
+        writeString(out, alarm.getSoundType());
+        out.write(",\"repeat\":");
+        out.write(alarm.isRepeatDaily() ? "true" : "false");
+        out.write(",\"snooze\":");
+        out.write(Integer.toString(alarm.getSnooze()));
+        out.write(",\"active\":");
+        out.write(alarm.isEnabled() ? "true" : "false");
+        out.write('}');
+    }
+
+    public static void writeString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+            out.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    out.write("\\u00");
+                    out.write(Character.forDigit(c >> 4, 16));
+                    out.write(Character.forDigit(c & 0xF, 16));
+                    break;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    // One alarm object and nothing after it
+    public static AlarmItem readAlarm(Reader in) throws IOException {
+        Parser parser = new Parser(in);
+        AlarmItem alarm = parser.readAlarm();
+        parser.expectEnd();
+        return alarm;
+    }
+
+    private static final class Parser {
+        private static final int NONE = -2;
+
+        private final Reader in;
+        private final StringBuilder text = new StringBuilder();
+        // Next character, -1 at end of input, or NONE if not read yet
+        private int next = NONE;
+
+        Parser(Reader in) {
+            this.in = in;
+        }
+
+        AlarmItem readAlarm() throws IOException {
+            long id = 0;
+            String time = null;
+            String message = "";
+            String sound = "Standard";
+            boolean repeat = false;
+            boolean active = true;
+            int snooze = 0;
+
+            expect('{');
+            if (peekAfterWhitespace() == '}') {
+                read();
+            } else {
+                do {
+                    String name = readString();
+                    expect(':');
+                    switch (name) {
+                        case "id":
+                            id = readNullableLong(0);
+                            break;
+                        case "time":
+                            time = readNullableString();
+                            break;
+                        case "message":
+                            message = orDefault(readNullableString(), message);
+                            break;
+                        case "sound":
+                            sound = orDefault(readNullableString(), sound);
+                            break;
+                        case "repeat":
+                            repeat = readBoolean();
+                            break;
+                        case "snooze":
+                            snooze = (int) Math.max(0, Math.min(Integer.MAX_VALUE, readNullableLong(0)));
+                            break;
+                        case "active":
+                            active = readBoolean();
+                            break;
+                        default:
+                            // Members of the alarm object are one level deep
+                            skipValue(1);
+                            break;
+                    }
+                } while (readSeparator('}'));
+            }
+
+            try {
+                AlarmTimingWheel.toMinuteOfDay(time);
+            } catch (IllegalArgumentException e) {
+                throw new JsonException(e.getMessage());
+            }
+            AlarmItem alarm = new AlarmItem(time, message, sound, snooze, repeat);
+            alarm.setId(id);
+            alarm.setEnabled(active);
+            return alarm;
+        }
+
+        // After a member: true on ',', false on the closing character
+        boolean readSeparator(char close) throws IOException {
+            int c = peekAfterWhitespace();
+            read();
+            if (c == ',') {
+                return true;
+            }
+            if (c != close) {
+                throw error("Expected ',' or '" + close + "'", c);
+            }
+            return false;
+        }
+
+        String readNullableString() throws IOException {
+            if (peekAfterWhitespace() == 'n') {
+                readLiteral("null");
+                return null;
+            }
+            return readString();
+        }
+
+        String readString() throws IOException {
+            expect('"');
+            text.setLength(0);
+            while (true) {
+                int c = read();
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c == -1 || c < 0x20) {
+                    throw error("Unterminated string", c);
+                }
+                if (c == '\\') {
+                    c = readEscape();
+                }
+                if (text.length() == MAX_STRING_LENGTH) {
+                    throw new JsonException("String longer than " + MAX_STRING_LENGTH + " characters");
+                }
+                text.append((char) c);
+            }
+        }
+
+        private int readEscape() throws IOException {
+            int c = read();
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return c;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw new JsonException("Invalid \\u escape");
+                        }
+                        value = value * 16 + digit;
+                    }
+                    return value;
+                default:
+                    throw error("Invalid escape", c);
+            }
+        }
+
+        long readNullableLong(long defaultValue) throws IOException {
+            int c = peekAfterWhitespace();
+            if (c == 'n') {
+                readLiteral("null");
+                return defaultValue;
+            }
+            boolean negative = c == '-';
+            if (negative) {
+                read();
+            }
+            long value = 0;
+            int digits = 0;
+            while ((c = peek()) >= '0' && c <= '9') {
+                read();
+                if (++digits > 18) {
+                    throw new JsonException("Number out of range");
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (digits == 0) {
+                throw error("Expected a number", c);
+            }
+            if (c == '.' || c == 'e' || c == 'E') {
+                throw new JsonException("Expected an integer");
+            }
+            return negative ? -value : value;
+        }
+
+        boolean readBoolean() throws IOException {
+            int c = peekAfterWhitespace();
+            if (c == 't') {
+                readLiteral("true");
+                return true;
+            }
+            readLiteral("false");
+            return false;
+        }
+
+        private void readLiteral(String literal) throws IOException {
+            for (int i = 0; i < literal.length(); i++) {
+                if (read() != literal.charAt(i)) {
+                    throw new JsonException("Expected " + literal);
+                }
+            }
+        }
+
+        void skipValue(int depth) throws IOException {
+            int c = peekAfterWhitespace();
+            if ((c == '{' || c == '[') && depth >= MAX_DEPTH) {
+                throw new JsonException("Nesting deeper than " + MAX_DEPTH + " levels");
+            }
+            switch (c) {
+                case '"':
+                    readString();
+                    break;
+                case '{':
+                    read();
+                    if (peekAfterWhitespace() == '}') {
+                        read();
+                        break;
+                    }
+                    do {
+                        readString();
+                        expect(':');
+                        skipValue(depth + 1);
+                    } while (readSeparator('}'));
+                    break;
+                case '[':
+                    read();
+                    if (peekAfterWhitespace() == ']') {
+                        read();
+                        break;
+                    }
+                    do {
+                        skipValue(depth + 1);
+                    } while (readSeparator(']'));
+                    break;
+                case 't':
+                    readLiteral("true");
+                    break;
+                case 'f':
+                    readLiteral("false");
+                    break;
+                case 'n':
+                    readLiteral("null");
+                    break;
+                default:
+                    int digits = 0;
+                    while ((c = peek()) == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                        read();
+                        digits++;
+                    }
+                    if (digits == 0) {
+                        throw error("Unexpected character", c);
+                    }
+                    break;
+            }
+        }
+
+        void expect(char expected) throws IOException {
+            int c = peekAfterWhitespace();
+            if (c != expected) {
+                throw error("Expected '" + expected + "'", c);
+            }
+            read();
+        }
+
+        void expectEnd() throws IOException {
+            int c = peekAfterWhitespace();
+            if (c != -1) {
+                throw error("Unexpected data after value", c);
+            }
+        }
+
+        int peekAfterWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                read();
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (next == NONE) {
+                next = in.read();
+            }
+            return next;
+        }
+
+        int read() throws IOException {
+            int c = peek();
+            next = NONE;
+            return c;
+        }
+
+        private static JsonException error(String message, int found) {
+            return new JsonException(message + (found == -1 ? " at end of input" : " at '" + (char) found + "'"));
+        }
+
+        private static String orDefault(String value, String defaultValue) {
+            return value != null ? value : defaultValue;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.alarmclock.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How late alarms go off, broken down by stage. Each fired alarm gets a
+ * {@link Firing} that is marked as it moves from detected, to dispatched,
+ * to audio started, to acknowledged; each mark records the time since the
+ * alarm was due into that stage's histogram. Shared by the whole JVM and
+ * exported as a periodic log line, over JMX and by the web app's /metrics.
+ */
+public class AlarmLatencyMetrics implements AlarmLatencyMetricsMBean {
+    public enum Stage {
+        // The scheduler or clock tick noticed the alarm was due
+        DETECTED,
+        // A firing thread picked the alarm up
+        DISPATCHED,
+        // The sound was handed to the audio output
+        AUDIO_STARTED,
+        // The user snoozed or dismissed it
+        ACKNOWLEDGED
+    }
+
+    // One hour, in microseconds
+    private static final long HIGHEST_TRACKABLE_MICROS = 60L * 60 * 1_000_000;
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final AlarmLatencyMetrics INSTANCE = new AlarmLatencyMetrics();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+    private ScheduledExecutorService logger;
+    private boolean registered;
+
+    public static AlarmLatencyMetrics get() {
+        return INSTANCE;
+    }
+
+    private AlarmLatencyMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram(HIGHEST_TRACKABLE_MICROS);
+        }
+    }
+
+    /**
+     * Timestamps for one alarm going off. Stages are measured from the due
+     * time on the wall clock, then with System.nanoTime() from detection on,
+     * so later stages are not skewed by wall-clock adjustments.
+     */
+    public final class Firing {
+        private final long latenessAtDetectionMicros;
+        private final long detectedNanos;
+        private final boolean[] marked = new boolean[histograms.length];
+
+        private Firing(long dueEpochMillis) {
+            this.detectedNanos = System.nanoTime();
+            this.latenessAtDetectionMicros = (System.currentTimeMillis() - dueEpochMillis) * 1000;
+            mark(Stage.DETECTED);
+        }
+
+        // Later marks of the same stage are ignored
+        public void mark(Stage stage) {
+            synchronized (marked) {
+                if (marked[stage.ordinal()]) {
+                    return;
+                }
+                marked[stage.ordinal()] = true;
+            }
+            long sinceDetection = (System.nanoTime() - detectedNanos) / 1000;
+            histograms[stage.ordinal()].record(latenessAtDetectionMicros + sinceDetection);
+        }
+    }
+
+    // Call when an alarm is found due; marks it DETECTED
+    public Firing detected(long dueEpochMillis) {
+        return new Firing(dueEpochMillis);
+    }
+
+    // Most recent occurrence, at or before now, of a local minute of day
+    public static long dueMillisForMinuteOfDay(int minuteOfDay) {
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        ZonedDateTime due = ZonedDateTime.of(LocalDate.now(zone),
+                LocalTime.of(minuteOfDay / 60, minuteOfDay % 60), zone);
+        if (due.isAfter(now)) {
+            due = due.minusDays(1);
+        }
+        return due.toInstant().toEpochMilli();
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    @Override
+    public long getFiredCount() {
+        return getHistogram(Stage.DETECTED).getCount();
+    }
+
+    @Override
+    public double percentileMillis(String stage, double percentile) {
+        return getHistogram(Stage.valueOf(stage)).getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public double maxMillis(String stage) {
+        return getHistogram(Stage.valueOf(stage)).getMax() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    // e.g. "alarm latency ms: DETECTED n=3 p50=12.1 p90=40.2 p99=40.2 p99.9=40.2 max=40.2 | ..."
+    @Override
+    public String getSummary() {
+        StringBuilder line = new StringBuilder("alarm latency ms:");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = getHistogram(stage);
+            line.append(stage.ordinal() == 0 ? " " : " | ").append(stage).append(" n=").append(histogram.getCount());
+            for (double percentile : REPORTED_PERCENTILES) {
+                line.append(" p").append(formatPercentile(percentile)).append('=')
+                        .append(formatMillis(histogram.getValueAtPercentile(percentile)));
+            }
+            line.append(" max=").append(formatMillis(histogram.getMax()));
+        }
+        return line.toString();
+    }
+
+    // Nested stage -> statistic -> value in milliseconds, for JSON export
+    public Map<String, Object> toMap() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = getHistogram(stage);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getCount());
+            stats.put("mean", histogram.getMean() / 1000.0);
+            for (double percentile : REPORTED_PERCENTILES) {
+                stats.put("p" + formatPercentile(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            stats.put("max", histogram.getMax() / 1000.0);
+            stages.put(stage.name(), stats);
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("unit", "ms");
+        metrics.put("alarmLatency", stages);
+        return metrics;
+    }
+
+    /**
+     * Registers the MBean and logs the summary every {@code periodSeconds}
+     * whenever new alarms fired. Safe to call more than once.
+     */
+    public synchronized void start(long periodSeconds) {
+        if (!registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(this, new ObjectName("com.alarmclock:type=AlarmLatency"));
+            } catch (JMException e) {
+                System.err.println("Error registering alarm metrics MBean: " + e.getMessage());
+            }
+            registered = true;
+        }
+        if (logger == null && periodSeconds > 0) {
+            logger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "alarm-metrics-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long[] lastLogged = {0};
+            logger.scheduleAtFixedRate(() -> {
+                long fired = getFiredCount();
+                if (fired != lastLogged[0]) {
+                    lastLogged[0] = fired;
+                    System.out.println(getSummary());
+                }
+            }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static String formatMillis(long micros) {
+        return Double.toString(Math.round(micros / 100.0) / 10.0);
+    }
+}
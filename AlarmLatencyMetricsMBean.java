@@ -0,0 +1,19 @@
+package com.alarmclock.metrics;
+
+/**
+ * JMX view of {@link AlarmLatencyMetrics}, registered as
+ * {@code com.alarmclock:type=AlarmLatency}. Latencies are in milliseconds
+ * past the alarm's due time; stages are the names of
+ * {@link AlarmLatencyMetrics.Stage}.
+ */
+public interface AlarmLatencyMetricsMBean {
+    long getFiredCount();
+
+    String getSummary();
+
+    double percentileMillis(String stage, double percentile);
+
+    double maxMillis(String stage);
+
+    void reset();
+}
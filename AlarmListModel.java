@@ -0,0 +1,91 @@
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * List model for the alarm lists in the Swing front ends. Every change fires
+ * an event for just the rows it touched, so a JList repaints only those rows
+ * when they are visible instead of the whole list being rebuilt.
+ * Must be used on the event dispatch thread.
+ */
+public class AlarmListModel<T> extends AbstractListModel<T> {
+    private final List<T> items = new ArrayList<>();
+
+    public AlarmListModel() {
+    }
+
+    public AlarmListModel(Collection<? extends T> initial) {
+        items.addAll(initial);
+    }
+
+    @Override
+    public int getSize() {
+        return items.size();
+    }
+
+    @Override
+    public T getElementAt(int index) {
+        return items.get(index);
+    }
+
+    public void add(T item) {
+        int row = items.size();
+        items.add(item);
+        fireIntervalAdded(this, row, row);
+    }
+
+    public void addAll(Collection<? extends T> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        int first = items.size();
+        items.addAll(added);
+        fireIntervalAdded(this, first, items.size() - 1);
+    }
+
+    public boolean remove(T item) {
+        int row = items.indexOf(item);
+        if (row < 0) {
+            return false;
+        }
+        remove(row);
+        return true;
+    }
+
+    public T remove(int row) {
+        T removed = items.remove(row);
+        fireIntervalRemoved(this, row, row);
+        return removed;
+    }
+
+    // Call after changing an item in place so its row is repainted
+    public void update(T item) {
+        int row = items.indexOf(item);
+        if (row >= 0) {
+            fireContentsChanged(this, row, row);
+        }
+    }
+
+    public void clear() {
+        int last = items.size() - 1;
+        if (last >= 0) {
+            items.clear();
+            fireIntervalRemoved(this, 0, last);
+        }
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public int indexOf(T item) {
+        return items.indexOf(item);
+    }
+
+    // Read-only view, e.g. for saving
+    public List<T> asList() {
+        return Collections.unmodifiableList(items);
+    }
+}
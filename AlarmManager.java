@@ -1,72 +1,339 @@
-PS C:\Users\user\Downloads\java1> java AlarmClock
-java : The term 'java' is not recognized as the name of a cmdlet, 
-function, script file, or operable program. Check the spelling of 
-the name, or if a path was included, verify that the path is correct 
-and try again.
-At line:1 char:1
-+ java AlarmClock
-+ ~~~~
-    + CategoryInfo          : ObjectNotFound: (java:String) [], Comm 
-   andNotFoundException
-    + FullyQualifiedErrorId : CommandNotFoundExceptionimport java.time.LocalTime;
+import com.alarmclock.metrics.AlarmLatencyMetrics;
+import com.alarmclock.metrics.LatencyHistogram;
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class AlarmManager {
-    private List<Alarm> alarms;
+    public enum DispatchMode {
+        // Wake once a minute and fire the wheel slots that came due
+        MINUTE_TICK,
+        // Sleep until the earliest alarm is due, with no periodic wakeups
+        NEXT_FIRE
+    }
+
+    private static class ScheduledFire implements Comparable<ScheduledFire> {
+        private final Alarm alarm;
+        private final Instant dueAt;
+        private boolean cancelled;
+
+        ScheduledFire(Alarm alarm, Instant dueAt) {
+            this.alarm = alarm;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public int compareTo(ScheduledFire other) {
+            return dueAt.compareTo(other.dueAt);
+        }
+    }
+
+    // Decode an alarm's sound file when it is added, not when it first fires
+    private static final boolean PREWARM_SOUNDS =
+        Boolean.parseBoolean(System.getProperty("alarm.sound.prewarm", "true"));
+
+    // How often the latency summary is logged; 0 turns the log line off
+    private static final long METRICS_LOG_SECONDS = Long.getLong("alarm.metrics.logSeconds", 60L);
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    // One hour, in microseconds
+    private static final long HIGHEST_TRACKABLE_MICROS = 60L * 60 * 1_000_000;
+
+    private final DispatchMode mode;
+    private AlarmRegistry<Alarm> alarms;
+    // MINUTE_TICK schedule, one row per registry id
+    private AlarmColumnStore schedule;
+    private PriorityQueue<ScheduledFire> fireQueue;
+    private Map<Alarm, ScheduledFire> pendingFires;
+    private ScheduledFuture<?> armedDispatch;
+    private ScheduledFuture<?> armedTick;
+    private Instant armedFor;
+    // How late this manager's alarms went off, in microseconds
+    private final LatencyHistogram fireLateness = new LatencyHistogram(HIGHEST_TRACKABLE_MICROS);
     private SoundPlayer soundPlayer;
     private ScheduledExecutorService scheduler;
+    // Firings still ringing, acknowledged by stopAllAlarms()
+    private final List<AlarmLatencyMetrics.Firing> ringing = new ArrayList<>();
 
     public AlarmManager() {
-        this.alarms = new ArrayList<>();
-        this.soundPlayer = new SoundPlayer();
+        // e.g. -Dalarm.dispatch=NEXT_FIRE
+        this(DispatchMode.valueOf(System.getProperty("alarm.dispatch", DispatchMode.MINUTE_TICK.name())));
+    }
+
+    public AlarmManager(DispatchMode mode) {
+        this(mode, new SoundPlayer());
+    }
+
+    AlarmManager(DispatchMode mode, SoundPlayer soundPlayer) {
+        this.mode = mode;
+        this.alarms = new AlarmRegistry<>();
+        this.schedule = new AlarmColumnStore();
+        this.fireQueue = new PriorityQueue<>();
+        this.pendingFires = new HashMap<>();
+        this.soundPlayer = soundPlayer;
         this.scheduler = Executors.newScheduledThreadPool(1);
-        startAlarmChecker();
+        AlarmLatencyMetrics.get().start(METRICS_LOG_SECONDS);
+        if (mode == DispatchMode.MINUTE_TICK) {
+            startAlarmChecker();
+        }
     }
 
+    // Ticks on minute boundaries rather than a minute after whenever it started
     private void startAlarmChecker() {
-        scheduler.scheduleAtFixedRate(() -> {
-            LocalTime currentTime = LocalTime.now();
-            for (Alarm alarm : alarms) {
-                if (alarm.isActive() && 
-                    alarm.getTime().getHour() == currentTime.getHour() && 
-                    alarm.getTime().getMinute() == currentTime.getMinute()) {
-                    triggerAlarm(alarm);
+        scheduleTick(nextMinuteBoundary(System.currentTimeMillis()));
+    }
+
+    private synchronized void scheduleTick(long boundaryMillis) {
+        long delay = Math.max(0, boundaryMillis - System.currentTimeMillis());
+        try {
+            armedTick = scheduler.schedule(() -> tick(boundaryMillis), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void tick(long boundaryMillis) {
+        try {
+            // Take the minute from the boundary, not the clock, in case the timer woke a little early
+            int minuteOfDay = AlarmTimingWheel.toMinuteOfDay(
+                LocalTime.ofInstant(Instant.ofEpochMilli(boundaryMillis), ZoneId.systemDefault()));
+            List<Alarm> due = new ArrayList<>();
+            synchronized (this) {
+                schedule.advanceTo(minuteOfDay, id -> {
+                    Alarm alarm = alarms.get(id);
+                    if (alarm != null) {
+                        due.add(alarm);
+                    }
+                });
+            }
+            for (Alarm alarm : due) {
+                // Minutes caught up after a late tick were due before this boundary
+                int minute = AlarmTimingWheel.toMinuteOfDay(alarm.getTime());
+                fire(alarm, minute == minuteOfDay
+                    ? boundaryMillis
+                    : AlarmLatencyMetrics.dueMillisForMinuteOfDay(minute));
+            }
+        } finally {
+            scheduleTick(nextMinuteBoundary(Math.max(boundaryMillis, System.currentTimeMillis())));
+        }
+    }
+
+    private void dispatchDueAlarms() {
+        List<ScheduledFire> due = new ArrayList<>();
+        synchronized (this) {
+            armedDispatch = null;
+            armedFor = null;
+            Instant now = Instant.now();
+            ScheduledFire head;
+            while ((head = fireQueue.peek()) != null && !head.dueAt.isAfter(now)) {
+                fireQueue.poll();
+                if (head.cancelled) {
+                    continue;
+                }
+                pendingFires.remove(head.alarm);
+                due.add(head);
+                if (head.alarm.isRepeating()) {
+                    enqueueFire(head.alarm, now);
                 }
             }
-        }, 0, 1, TimeUnit.MINUTES);
+            rearmDispatch();
+        }
+        for (ScheduledFire fire : due) {
+            fire(fire.alarm, fire.dueAt.toEpochMilli());
+        }
+    }
+
+    // Called without the lock held, so a ringing alarm does not hold up addAlarm and removeAlarm
+    private void fire(Alarm alarm, long dueEpochMillis) {
+        // Removed or switched off since it was found due
+        if (!alarm.isActive() || !alarms.contains(alarm)) {
+            return;
+        }
+        fireLateness.record((System.currentTimeMillis() - dueEpochMillis) * 1000);
+        triggerAlarm(alarm, dueEpochMillis);
+    }
+
+    private void enqueueFire(Alarm alarm, Instant after) {
+        ZonedDateTime from = after.atZone(ZoneId.systemDefault());
+        ZonedDateTime next = ZonedDateTime.of(from.toLocalDate(), alarm.getTime().withSecond(0).withNano(0), from.getZone());
+        if (!next.toInstant().isAfter(after)) {
+            LocalDate tomorrow = from.toLocalDate().plusDays(1);
+            next = ZonedDateTime.of(tomorrow, next.toLocalTime(), from.getZone());
+        }
+        ScheduledFire fire = new ScheduledFire(alarm, next.toInstant());
+        fireQueue.add(fire);
+        pendingFires.put(alarm, fire);
     }
 
-    private void triggerAlarm(Alarm alarm) {
+    // Re-arms the one-shot dispatch when the head of the queue changed
+    private void rearmDispatch() {
+        ScheduledFire head;
+        while ((head = fireQueue.peek()) != null && head.cancelled) {
+            fireQueue.poll();
+        }
+        if (head == null) {
+            if (armedDispatch != null) {
+                armedDispatch.cancel(false);
+                armedDispatch = null;
+                armedFor = null;
+            }
+            return;
+        }
+        if (head.dueAt.equals(armedFor)) {
+            return;
+        }
+        if (armedDispatch != null) {
+            armedDispatch.cancel(false);
+        }
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        long delayNanos = Math.max(0, Duration.between(Instant.now(), head.dueAt).toNanos());
+        armedDispatch = scheduler.schedule(this::dispatchDueAlarms, delayNanos, TimeUnit.NANOSECONDS);
+        armedFor = head.dueAt;
+    }
+
+    private void triggerAlarm(Alarm alarm, long dueEpochMillis) {
+        AlarmLatencyMetrics.Firing firing = AlarmLatencyMetrics.get().detected(dueEpochMillis);
+        // Alarms fire on the scheduler thread that detected them
+        firing.mark(AlarmLatencyMetrics.Stage.DISPATCHED);
         System.out.println("\nALARM: " + alarm.getMessage());
-        soundPlayer.playSound(alarm.getSoundFile());
+        soundPlayer.playSound(alarm.getSoundFile(), true);
+        firing.mark(AlarmLatencyMetrics.Stage.AUDIO_STARTED);
+        synchronized (ringing) {
+            ringing.add(firing);
+        }
         
         if (!alarm.isRepeating()) {
             alarm.setActive(false);
         }
     }
 
-    public void addAlarm(Alarm alarm) {
-        alarms.add(alarm);
+    public long addAlarm(Alarm alarm) {
+        if (PREWARM_SOUNDS) {
+            soundPlayer.prewarm(alarm.getSoundFile());
+        }
+        long id = alarms.add(alarm);
+        synchronized (this) {
+            // Skip if a concurrent remove won the race or it is already scheduled
+            if (alarms.get(id) != alarm) {
+                return id;
+            }
+            if (mode == DispatchMode.NEXT_FIRE) {
+                if (!pendingFires.containsKey(alarm)) {
+                    enqueueFire(alarm, Instant.now());
+                    rearmDispatch();
+                }
+            } else if (!schedule.contains(id)) {
+                // The row only tells when the alarm is due; the alarm itself, and
+                // whether it is active, is read from the registry at that point
+                schedule.put(id, AlarmTimingWheel.toMinuteOfDay(alarm.getTime()), null, null, 0,
+                    alarm.isRepeating(), true);
+            }
+        }
+        return id;
     }
 
     public void removeAlarm(Alarm alarm) {
-        alarms.remove(alarm);
+        long id = alarms.idOf(alarm);
+        if (id >= 0 && alarms.removeById(id) != null) {
+            unschedule(alarm, id);
+        }
+    }
+
+    public Alarm removeAlarm(long id) {
+        Alarm alarm = alarms.removeById(id);
+        if (alarm != null) {
+            unschedule(alarm, id);
+        }
+        return alarm;
+    }
+
+    public Alarm getAlarm(long id) {
+        return alarms.get(id);
+    }
+
+    private synchronized void unschedule(Alarm alarm, long id) {
+        if (mode == DispatchMode.NEXT_FIRE) {
+            // Cancelled entries are skipped when they reach the head
+            ScheduledFire fire = pendingFires.remove(alarm);
+            if (fire != null) {
+                fire.cancelled = true;
+                rearmDispatch();
+            }
+        } else {
+            schedule.remove(id);
+        }
     }
 
     public List<Alarm> getAlarms() {
-        return new ArrayList<>(alarms);
+        return new ArrayList<>(alarms.snapshot());
+    }
+
+    // Read-only view that is shared between callers until the next change
+    public List<Alarm> getAlarmSnapshot() {
+        return alarms.snapshot();
+    }
+
+    public DispatchMode getDispatchMode() {
+        return mode;
+    }
+
+    public long getFiredCount() {
+        return fireLateness.getCount();
+    }
+
+    public double getAverageFireLatenessMillis() {
+        return fireLateness.getMean() / 1000.0;
+    }
+
+    public double getMaxFireLatenessMillis() {
+        return fireLateness.getMax() / 1000.0;
+    }
+
+    public double getFireLatenessMillisAtPercentile(double percentile) {
+        return fireLateness.getValueAtPercentile(percentile) / 1000.0;
     }
 
     public void stopAllAlarms() {
         soundPlayer.stopSound();
+        synchronized (ringing) {
+            for (AlarmLatencyMetrics.Firing firing : ringing) {
+                firing.mark(AlarmLatencyMetrics.Stage.ACKNOWLEDGED);
+            }
+            ringing.clear();
+        }
     }
 
     public void shutdown() {
-        scheduler.shutdown();
+        synchronized (this) {
+            // Delayed one-shot dispatches and ticks would otherwise hold up termination
+            if (armedDispatch != null) {
+                armedDispatch.cancel(false);
+                armedDispatch = null;
+                armedFor = null;
+            }
+            if (armedTick != null) {
+                armedTick.cancel(false);
+            }
+            // Under the lock, so a running tick cannot arm another one after the cancel
+            scheduler.shutdown();
+        }
         try {
             if (!scheduler.awaitTermination(60, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
@@ -75,4 +342,8 @@ public class AlarmManager {
             scheduler.shutdownNow();
         }
     }
-} 
\ No newline at end of file
+
+    private static long nextMinuteBoundary(long epochMillis) {
+        return (epochMillis / MINUTE_MILLIS + 1) * MINUTE_MILLIS;
+    }
+}
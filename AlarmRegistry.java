@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe alarm registry. Every alarm gets a stable id on registration,
+ * from an increasing sequence; alarms are kept sorted by id, which is
+ * registration order, so a snapshot is a straight copy with no sorting.
+ * Lookups by alarm are O(1), by id O(log n), and none of them block.
+ * {@link #snapshot()} hands out an immutable list in registration order that
+ * is rebuilt only after the registry has changed.
+ */
+public class AlarmRegistry<T> {
+    private static final class Snapshot<T> {
+        private final long version;
+        private final List<T> items;
+
+        Snapshot(long version, List<T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    private final ConcurrentNavigableMap<Long, T> byId = new ConcurrentSkipListMap<>();
+    private final Map<T, Long> idsByAlarm = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<T> snapshot = new Snapshot<>(0, Collections.emptyList());
+
+    public long add(T alarm) {
+        Long existing = idsByAlarm.get(alarm);
+        if (existing != null) {
+            return existing;
+        }
+        // Claim the alarm before listing it, so a racing add never lists it twice.
+        // The id is taken inside the claim, so each alarm's ids only ever grow
+        long[] claimed = {-1};
+        long id = idsByAlarm.computeIfAbsent(alarm, a -> claimed[0] = nextId.getAndIncrement());
+        if (id != claimed[0]) {
+            return id;
+        }
+        byId.put(id, alarm);
+        // A remove(alarm) between the two puts could not see the listing yet
+        Long current = idsByAlarm.get(alarm);
+        if (current == null || current != id) {
+            byId.remove(id, alarm);
+        }
+        version.incrementAndGet();
+        return id;
+    }
+
+    public boolean remove(T alarm) {
+        Long id = idsByAlarm.remove(alarm);
+        if (id == null) {
+            return false;
+        }
+        byId.remove(id);
+        version.incrementAndGet();
+        return true;
+    }
+
+    public T removeById(long id) {
+        T alarm = byId.remove(id);
+        if (alarm != null) {
+            idsByAlarm.remove(alarm, id);
+            version.incrementAndGet();
+        }
+        return alarm;
+    }
+
+    public T get(long id) {
+        return byId.get(id);
+    }
+
+    public long idOf(T alarm) {
+        Long id = idsByAlarm.get(alarm);
+        return id == null ? -1 : id;
+    }
+
+    public boolean contains(T alarm) {
+        return idsByAlarm.containsKey(alarm);
+    }
+
+    public int size() {
+        // Not byId.size(), which counts the skip list node by node
+        return idsByAlarm.size();
+    }
+
+    public List<T> snapshot() {
+        Snapshot<T> current = snapshot;
+        long v = version.get();
+        if (current.version == v) {
+            return current.items;
+        }
+
+        // Mutations racing with the rebuild leave an older version behind,
+        // which the next reader notices and rebuilds again
+        List<Map.Entry<Long, T>> entries = new ArrayList<>(byId.entrySet());
+        List<T> items = new ArrayList<>(entries.size());
+        // An alarm removed and re-added during the copy can be in it under both
+        // ids. Checked newest first, only one of them can still be its id, since
+        // an alarm's ids only grow
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Map.Entry<Long, T> entry = entries.get(i);
+            if (entry.getKey().equals(idsByAlarm.get(entry.getValue()))) {
+                items.add(entry.getValue());
+            }
+        }
+        Collections.reverse(items);
+        List<T> frozen = Collections.unmodifiableList(items);
+        snapshot = new Snapshot<>(v, frozen);
+        return frozen;
+    }
+}
@@ -1,7 +1,60 @@
 package com.alarmclock.repository;
 
 import com.alarmclock.model.Alarm;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Due-alarm queries take an inclusive minute-of-day range with
+ * {@code fromMinute <= toMinute}; a range that wraps past midnight has to be
+ * split into two calls. They are served by the (active, minute_of_day) index.
+ */
 public interface AlarmRepository extends JpaRepository<Alarm, Long> {
-} 
\ No newline at end of file
+
+    String DUE_BETWEEN = "select a from Alarm a where a.active = true"
+            + " and a.minuteOfDay between :fromMinute and :toMinute"
+            + " order by a.minuteOfDay, a.id";
+
+    @Query(DUE_BETWEEN)
+    List<Alarm> findDueBetween(@Param("fromMinute") int fromMinute, @Param("toMinute") int toMinute);
+
+    @Query(value = DUE_BETWEEN,
+            countQuery = "select count(a) from Alarm a where a.active = true"
+                    + " and a.minuteOfDay between :fromMinute and :toMinute")
+    Page<Alarm> findDueBetween(@Param("fromMinute") int fromMinute, @Param("toMinute") int toMinute,
+                               Pageable pageable);
+
+    // Must be consumed and closed inside a read-only transaction
+    @Query(DUE_BETWEEN)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<Alarm> streamDueBetween(@Param("fromMinute") int fromMinute, @Param("toMinute") int toMinute);
+
+    // Bulk statements skip entity callbacks; callers keep the id lists to a few thousand
+    @Modifying
+    @Transactional
+    @Query("update Alarm a set a.active = :active where a.id in :ids")
+    int setActive(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    // Leaves alarms alone that were moved to another minute or made repeating after they fired
+    @Modifying
+    @Transactional
+    @Query("update Alarm a set a.active = false where a.id in :ids and a.active = true"
+            + " and a.minuteOfDay = :minuteOfDay and a.repeat = false")
+    int deactivateFired(@Param("ids") Collection<Long> ids, @Param("minuteOfDay") int minuteOfDay);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Alarm a where a.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+}
\ No newline at end of file
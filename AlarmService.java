@@ -1,13 +1,27 @@
 package com.alarmclock.service;
 
 import com.alarmclock.model.Alarm;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AlarmService {
     List<Alarm> getAllAlarms();
+    AlarmCache.Snapshot getAlarmSnapshot();
     Optional<Alarm> getAlarmById(Long id);
     Alarm saveAlarm(Alarm alarm);
     Optional<Alarm> updateAlarm(Long id, Alarm alarm);
     void deleteAlarm(Long id);
+    List<Alarm> saveAlarms(List<Alarm> alarms);
+    List<Alarm> updateAlarms(List<Alarm> alarms);
+    int deleteAlarms(Collection<Long> ids);
+    int setAlarmsActive(Collection<Long> ids, boolean active);
+    int deactivateFiredAlarms(int minuteOfDay, Collection<Long> ids);
+    void forEachAlarmDueBetween(int fromMinute, int toMinute, Consumer<Alarm> action);
+    List<Alarm> getAlarmsDueBetween(int fromMinute, int toMinute);
+    Page<Alarm> getAlarmsDueBetween(int fromMinute, int toMinute, Pageable pageable);
 } 
\ No newline at end of file
@@ -2,11 +2,25 @@ package com.alarmclock.service;
 
 import com.alarmclock.model.Alarm;
 import com.alarmclock.repository.AlarmRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AlarmServiceImpl implements AlarmService {
@@ -14,19 +28,44 @@ public class AlarmServiceImpl implements AlarmService {
     @Autowired
     private AlarmRepository alarmRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AlarmCache alarmCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Flush and clear every JDBC batch so a large import keeps a small persistence context
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    // Upper bound on ids bound into one IN (...) list
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+
     @Override
     public List<Alarm> getAllAlarms() {
-        return alarmRepository.findAll();
+        return getAlarmSnapshot().getAlarms();
+    }
+
+    @Override
+    public AlarmCache.Snapshot getAlarmSnapshot() {
+        return alarmCache.getAll(alarmRepository::findAll);
     }
 
     @Override
     public Optional<Alarm> getAlarmById(Long id) {
-        return alarmRepository.findById(id);
+        return alarmCache.get(id, alarmRepository::findById);
     }
 
     @Override
     public Alarm saveAlarm(Alarm alarm) {
-        return alarmRepository.save(alarm);
+        boolean created = alarm.getId() == null || !alarmRepository.existsById(alarm.getId());
+        Alarm saved = alarmRepository.save(alarm);
+        alarmCache.put(saved);
+        eventPublisher.publishEvent(created ? AlarmChangedEvent.created(saved) : AlarmChangedEvent.updated(saved));
+        return saved;
     }
 
     @Override
@@ -39,12 +78,160 @@ public class AlarmServiceImpl implements AlarmService {
                     existingAlarm.setRepeat(alarmDetails.isRepeat());
                     existingAlarm.setSnooze(alarmDetails.getSnooze());
                     existingAlarm.setActive(alarmDetails.isActive());
-                    return alarmRepository.save(existingAlarm);
+                    Alarm saved = alarmRepository.save(existingAlarm);
+                    alarmCache.put(saved);
+                    eventPublisher.publishEvent(AlarmChangedEvent.updated(saved));
+                    return saved;
                 });
     }
 
     @Override
     public void deleteAlarm(Long id) {
         alarmRepository.deleteById(id);
+        alarmCache.evict(id);
+        eventPublisher.publishEvent(AlarmChangedEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional
+    public List<Alarm> saveAlarms(List<Alarm> alarms) {
+        List<Alarm> saved = new ArrayList<>(alarms.size());
+        for (Alarm alarm : alarms) {
+            alarm.setId(null);
+            entityManager.persist(alarm);
+            saved.add(alarm);
+            if (saved.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        eventPublisher.publishEvent(new AlarmBulkChangedEvent(saved, Collections.emptyList()));
+        return saved;
+    }
+
+    // Alarms whose id is missing or unknown are skipped
+    @Override
+    @Transactional
+    public List<Alarm> updateAlarms(List<Alarm> alarms) {
+        Map<Long, Alarm> detailsById = new HashMap<>();
+        for (Alarm alarm : alarms) {
+            if (alarm.getId() != null) {
+                detailsById.put(alarm.getId(), alarm);
+            }
+        }
+
+        List<Alarm> updated = new ArrayList<>(detailsById.size());
+        for (List<Long> chunk : chunks(detailsById.keySet(), Math.min(batchSize, MAX_IDS_PER_STATEMENT))) {
+            for (Alarm existingAlarm : alarmRepository.findAllById(chunk)) {
+                Alarm alarmDetails = detailsById.get(existingAlarm.getId());
+                existingAlarm.setTime(alarmDetails.getTime());
+                existingAlarm.setMessage(alarmDetails.getMessage());
+                existingAlarm.setSound(alarmDetails.getSound());
+                existingAlarm.setRepeat(alarmDetails.isRepeat());
+                existingAlarm.setSnooze(alarmDetails.getSnooze());
+                existingAlarm.setActive(alarmDetails.isActive());
+                updated.add(existingAlarm);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        eventPublisher.publishEvent(new AlarmBulkChangedEvent(updated, Collections.emptyList()));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int deleteAlarms(Collection<Long> ids) {
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids, MAX_IDS_PER_STATEMENT)) {
+            deleted += alarmRepository.deleteAllByIds(chunk);
+        }
+        eventPublisher.publishEvent(new AlarmBulkChangedEvent(Collections.emptyList(), new ArrayList<>(ids)));
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int setAlarmsActive(Collection<Long> ids, boolean active) {
+        int changed = 0;
+        List<Alarm> toggled = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(ids, MAX_IDS_PER_STATEMENT)) {
+            changed += alarmRepository.setActive(chunk, active);
+        }
+        // The bulk update bypasses the persistence context; re-read so listeners see the new state
+        entityManager.clear();
+        for (List<Long> chunk : chunks(ids, MAX_IDS_PER_STATEMENT)) {
+            toggled.addAll(alarmRepository.findAllById(chunk));
+        }
+        eventPublisher.publishEvent(new AlarmBulkChangedEvent(toggled, Collections.emptyList()));
+        return changed;
+    }
+
+    /**
+     * Switches off one-shot alarms that fired at minuteOfDay. An alarm edited
+     * since it was scheduled, to another time or to repeat, stays active, and
+     * only the alarms actually switched off are published.
+     */
+    @Override
+    @Transactional
+    public int deactivateFiredAlarms(int minuteOfDay, Collection<Long> ids) {
+        int changed = 0;
+        for (List<Long> chunk : chunks(ids, MAX_IDS_PER_STATEMENT)) {
+            changed += alarmRepository.deactivateFired(chunk, minuteOfDay);
+        }
+        if (changed == 0) {
+            return 0;
+        }
+        entityManager.clear();
+        List<Alarm> deactivated = new ArrayList<>(changed);
+        for (List<Long> chunk : chunks(ids, MAX_IDS_PER_STATEMENT)) {
+            for (Alarm alarm : alarmRepository.findAllById(chunk)) {
+                if (!alarm.isActive()) {
+                    deactivated.add(alarm);
+                }
+            }
+        }
+        eventPublisher.publishEvent(new AlarmBulkChangedEvent(deactivated, Collections.emptyList()));
+        return changed;
+    }
+
+    // Streams the range in one read-only transaction, detaching each alarm once it has been handed over
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAlarmDueBetween(int fromMinute, int toMinute, Consumer<Alarm> action) {
+        try (Stream<Alarm> alarms = alarmRepository.streamDueBetween(fromMinute, toMinute)) {
+            alarms.forEach(alarm -> {
+                action.accept(alarm);
+                entityManager.detach(alarm);
+            });
+        }
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids, int size) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(Math.min(size, ids.size()));
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == size) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    @Override
+    public List<Alarm> getAlarmsDueBetween(int fromMinute, int toMinute) {
+        return alarmRepository.findDueBetween(fromMinute, toMinute);
+    }
+
+    @Override
+    public Page<Alarm> getAlarmsDueBetween(int fromMinute, int toMinute, Pageable pageable) {
+        return alarmRepository.findDueBetween(fromMinute, toMinute, pageable);
     }
 } 
\ No newline at end of file
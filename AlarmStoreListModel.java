@@ -0,0 +1,61 @@
+import javax.swing.AbstractListModel;
+
+/**
+ * List model over the AlarmColumnStore that AlarmDataManager loaded. Rows
+ * become AlarmItems only when the list asks for them, which with the fixed
+ * cell size from {@link AlarmCellRenderer#install} is just the rows on
+ * screen. Changes are saved through AlarmDataManager before they are shown;
+ * a removal moves the last row into the removed row's place.
+ * Must be used on the event dispatch thread.
+ */
+public class AlarmStoreListModel extends AbstractListModel<AlarmItem> {
+    private final AlarmColumnStore store;
+
+    public AlarmStoreListModel(AlarmColumnStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int getSize() {
+        return store.size();
+    }
+
+    @Override
+    public AlarmItem getElementAt(int index) {
+        return store.toAlarmItem(index);
+    }
+
+    // False, with nothing shown, if the alarm could not be saved
+    public boolean add(AlarmItem alarm) {
+        if (!AlarmDataManager.recordAdd(alarm)) {
+            return false;
+        }
+        int row = store.rowOf(alarm.getId());
+        fireIntervalAdded(this, row, row);
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int row = store.rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        int last = store.size() - 1;
+        if (!AlarmDataManager.recordRemove(id)) {
+            return false;
+        }
+        fireIntervalRemoved(this, last, last);
+        if (row != last) {
+            fireContentsChanged(this, row, row);
+        }
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return store.contains(id);
+    }
+
+    public AlarmColumnStore getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,195 @@
+package com.alarmclock.scheduling;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Timing wheel with one slot per minute of the day. Scheduling and cancelling
+ * are O(1) through the returned entry handle, and advancing the wheel only
+ * touches the slots that have come due since the previous advance.
+ */
+public class AlarmTimingWheel<T> {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    // Larger forward gaps (suspend, clock changes) fire only the current minute
+    public static final int MAX_CATCH_UP_MINUTES = 15;
+
+    public static final class Entry<T> {
+        private final T value;
+        private int minuteOfDay;
+        private Entry<T> prev;
+        private Entry<T> next;
+        private boolean scheduled;
+
+        private Entry(T value, int minuteOfDay) {
+            this.value = value;
+            this.minuteOfDay = minuteOfDay;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public int getMinuteOfDay() {
+            return minuteOfDay;
+        }
+
+        public boolean isScheduled() {
+            return scheduled;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[] slots = (Entry<T>[]) new Entry<?>[MINUTES_PER_DAY];
+    // Reused between advances so a tick does not allocate once warmed up
+    private final List<Entry<T>> due = new ArrayList<>();
+    private int lastMinute = -1;
+    private int size;
+
+    public Entry<T> schedule(int minuteOfDay, T value) {
+        Entry<T> entry = new Entry<>(value, checkMinute(minuteOfDay));
+        link(entry);
+        return entry;
+    }
+
+    public boolean cancel(Entry<T> entry) {
+        if (entry == null || !entry.scheduled) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    public void reschedule(Entry<T> entry, int minuteOfDay) {
+        checkMinute(minuteOfDay);
+        if (entry.scheduled) {
+            unlink(entry);
+        }
+        entry.minuteOfDay = minuteOfDay;
+        link(entry);
+    }
+
+    /**
+     * Fires every entry in the slots after the last advanced minute up to and
+     * including {@code minuteOfDay}, so minutes skipped by a late tick are not
+     * lost. The first advance, or one after the clock jumped, only fires the
+     * current minute. Entries stay on the wheel after firing; callers cancel
+     * the ones that should not repeat. The sink must not advance the wheel.
+     * Returns the number of entries fired.
+     */
+    public int advanceTo(int minuteOfDay, Consumer<T> sink) {
+        checkMinute(minuteOfDay);
+        if (minuteOfDay == lastMinute) {
+            return 0;
+        }
+        int gap = (minuteOfDay - lastMinute + MINUTES_PER_DAY) % MINUTES_PER_DAY;
+        int minute = lastMinute < 0 || gap > MAX_CATCH_UP_MINUTES
+                ? minuteOfDay
+                : (lastMinute + 1) % MINUTES_PER_DAY;
+        lastMinute = minuteOfDay;
+
+        due.clear();
+        while (true) {
+            for (Entry<T> e = slots[minute]; e != null; e = e.next) {
+                due.add(e);
+            }
+            if (minute == minuteOfDay) {
+                break;
+            }
+            minute = (minute + 1) % MINUTES_PER_DAY;
+        }
+
+        // Sink may cancel or reschedule entries, so fire from the collected copy
+        int fired = 0;
+        try {
+            for (int i = 0; i < due.size(); i++) {
+                Entry<T> e = due.get(i);
+                if (e.scheduled) {
+                    sink.accept(e.value);
+                    fired++;
+                }
+            }
+        } finally {
+            due.clear();
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // Parses "HH:mm" without allocating a formatter or split array
+    public static int toMinuteOfDay(String hhmm) {
+        if (hhmm == null || hhmm.length() != 5 || hhmm.charAt(2) != ':') {
+            throw new IllegalArgumentException("Invalid time format: " + hhmm);
+        }
+        int hours = digit(hhmm, 0) * 10 + digit(hhmm, 1);
+        int minutes = digit(hhmm, 3) * 10 + digit(hhmm, 4);
+        if (hours > 23 || minutes > 59) {
+            throw new IllegalArgumentException("Invalid time values: " + hhmm);
+        }
+        return hours * 60 + minutes;
+    }
+
+    public static String formatMinuteOfDay(int minuteOfDay) {
+        checkMinute(minuteOfDay);
+        int hours = minuteOfDay / 60;
+        int minutes = minuteOfDay % 60;
+        return new String(new char[] {
+            (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+            (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)
+        });
+    }
+
+    private static int digit(String s, int index) {
+        char c = s.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Invalid time format: " + s);
+        }
+        return c - '0';
+    }
+
+    private static int checkMinute(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        return minuteOfDay;
+    }
+
+    private void link(Entry<T> entry) {
+        Entry<T> head = slots[entry.minuteOfDay];
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[entry.minuteOfDay] = entry;
+        entry.scheduled = true;
+        size++;
+    }
+
+    private void unlink(Entry<T> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.minuteOfDay] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.scheduled = false;
+        size--;
+    }
+}
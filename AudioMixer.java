@@ -0,0 +1,261 @@
+import javax.sound.sampled.*;
+import java.util.Arrays;
+
+/**
+ * Software mixer that sums every ringing alarm into one shared output line.
+ * Each sound is a voice holding 16-bit mono samples at the mixer rate, with
+ * its own gain; voices start and stop independently and never open a line
+ * of their own, so many alarms in the same minute can all ring and each can
+ * be silenced. The line is opened once and stopped while no voice plays.
+ */
+public class AudioMixer {
+    public static final int MAX_VOICES = 64;
+    public static final float SAMPLE_RATE = 44100f;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    // Frames mixed per write; about 12 ms at 44.1 kHz
+    private static final int BLOCK_FRAMES = 512;
+
+    private static AudioMixer shared;
+
+    public static synchronized AudioMixer shared() {
+        if (shared == null) {
+            shared = new AudioMixer();
+        }
+        return shared;
+    }
+
+    public final class Voice {
+        private final short[] samples;
+        private final boolean loop;
+        private volatile float gain;
+        private volatile boolean stopped;
+        // Only touched by the mixer thread
+        private int position;
+
+        Voice(short[] samples, float gain, boolean loop) {
+            this.samples = samples;
+            this.gain = gain;
+            this.loop = loop;
+        }
+
+        public void setGain(float gain) {
+            this.gain = gain;
+        }
+
+        public float getGain() {
+            return gain;
+        }
+
+        public void stop() {
+            stopped = true;
+        }
+
+        public boolean isActive() {
+            return !stopped;
+        }
+    }
+
+    private final Voice[] voices = new Voice[MAX_VOICES];
+    private SourceDataLine line;
+    private Thread thread;
+    private int voiceCount;
+
+    /**
+     * Starts a voice, or returns null if no output line is available or all
+     * voices are in use.
+     */
+    public Voice play(short[] samples, float gain, boolean loop) {
+        Voice voice = new Voice(samples, gain, loop);
+        synchronized (this) {
+            if (!ensureLine()) {
+                return null;
+            }
+            for (int i = 0; i < voices.length; i++) {
+                if (voices[i] == null) {
+                    voices[i] = voice;
+                    voiceCount++;
+                    notifyAll();
+                    return voice;
+                }
+            }
+        }
+        System.err.println("Error playing sound: all " + MAX_VOICES + " mixer voices are in use");
+        return null;
+    }
+
+    public synchronized int getActiveVoiceCount() {
+        return voiceCount;
+    }
+
+    public void stopAll() {
+        synchronized (this) {
+            for (Voice voice : voices) {
+                if (voice != null) {
+                    voice.stop();
+                }
+            }
+        }
+    }
+
+    private boolean ensureLine() {
+        if (line != null) {
+            return true;
+        }
+        try {
+            SourceDataLine opened = AudioSystem.getSourceDataLine(FORMAT);
+            opened.open(FORMAT, BLOCK_FRAMES * 2 * FORMAT.getFrameSize());
+            line = opened;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Error opening audio line: " + e.getMessage());
+            return false;
+        }
+        thread = new Thread(this::mixLoop, "alarm-audio-mixer");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void mixLoop() {
+        int[] mix = new int[BLOCK_FRAMES];
+        byte[] out = new byte[BLOCK_FRAMES * 2];
+        Voice[] active = new Voice[MAX_VOICES];
+        boolean running = false;
+
+        while (true) {
+            int count;
+            synchronized (this) {
+                while (voiceCount == 0) {
+                    if (running) {
+                        line.stop();
+                        line.flush();
+                        running = false;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    line.start();
+                    running = true;
+                }
+                count = 0;
+                for (Voice voice : voices) {
+                    if (voice != null) {
+                        active[count++] = voice;
+                    }
+                }
+            }
+
+            Arrays.fill(mix, 0);
+            for (int v = 0; v < count; v++) {
+                Voice voice = active[v];
+                if (!voice.stopped && !mixVoice(voice, mix)) {
+                    voice.stopped = true;
+                }
+            }
+
+            for (int i = 0; i < BLOCK_FRAMES; i++) {
+                int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                out[2 * i] = (byte) sample;
+                out[2 * i + 1] = (byte) (sample >> 8);
+            }
+            line.write(out, 0, out.length);
+            release(active, count);
+        }
+    }
+
+    // Adds one block of the voice into mix; false once a non-looping voice ends
+    private static boolean mixVoice(Voice voice, int[] mix) {
+        short[] samples = voice.samples;
+        if (samples.length == 0) {
+            return false;
+        }
+        float gain = voice.gain;
+        int position = voice.position;
+        int filled = 0;
+        while (filled < mix.length) {
+            if (position >= samples.length) {
+                if (!voice.loop) {
+                    voice.position = position;
+                    return false;
+                }
+                position = 0;
+            }
+            int run = Math.min(mix.length - filled, samples.length - position);
+            for (int i = 0; i < run; i++) {
+                mix[filled + i] += (int) (samples[position + i] * gain);
+            }
+            filled += run;
+            position += run;
+        }
+        voice.position = position;
+        return true;
+    }
+
+    private synchronized void release(Voice[] active, int count) {
+        for (int v = 0; v < count; v++) {
+            if (active[v].stopped) {
+                for (int i = 0; i < voices.length; i++) {
+                    if (voices[i] == active[v]) {
+                        voices[i] = null;
+                        voiceCount--;
+                    }
+                }
+            }
+            active[v] = null;
+        }
+    }
+
+    /**
+     * Converts signed or unsigned 8/16-bit PCM, mono or multi-channel, to
+     * 16-bit mono at the mixer rate. Channels are averaged and other sample
+     * rates are resampled linearly.
+     */
+    public static short[] toMixerSamples(byte[] data, AudioFormat format) {
+        int bytesPerSample = format.getSampleSizeInBits() / 8;
+        int channels = format.getChannels();
+        int frameSize = bytesPerSample * channels;
+        boolean signed = format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED;
+        boolean bigEndian = format.isBigEndian();
+        if ((bytesPerSample != 1 && bytesPerSample != 2) || frameSize == 0) {
+            throw new IllegalArgumentException("Unsupported sound format: " + format);
+        }
+
+        int frames = data.length / frameSize;
+        short[] mono = new short[frames];
+        for (int f = 0; f < frames; f++) {
+            int sum = 0;
+            for (int c = 0; c < channels; c++) {
+                int offset = f * frameSize + c * bytesPerSample;
+                int sample;
+                if (bytesPerSample == 1) {
+                    sample = signed ? data[offset] << 8 : ((data[offset] & 0xFF) - 128) << 8;
+                } else {
+                    int hi = data[offset + (bigEndian ? 0 : 1)];
+                    int lo = data[offset + (bigEndian ? 1 : 0)] & 0xFF;
+                    sample = signed ? (hi << 8) | lo : (((hi & 0xFF) << 8) | lo) - 32768;
+                }
+                sum += sample;
+            }
+            mono[f] = (short) (sum / channels);
+        }
+
+        float rate = format.getSampleRate();
+        if (rate == SAMPLE_RATE || rate == AudioSystem.NOT_SPECIFIED || frames < 2) {
+            return mono;
+        }
+        double step = rate / SAMPLE_RATE;
+        short[] resampled = new short[(int) ((frames - 1) / step) + 1];
+        for (int i = 0; i < resampled.length; i++) {
+            double source = i * step;
+            int index = (int) source;
+            double fraction = source - index;
+            int next = Math.min(index + 1, frames - 1);
+            resampled[i] = (short) (mono[index] + (mono[next] - mono[index]) * fraction);
+        }
+        return resampled;
+    }
+}
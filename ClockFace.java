@@ -0,0 +1,54 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Draws the time straight from a ClockTickEngine's char buffer. A JLabel
+ * would need a new String every second.
+ */
+public class ClockFace extends JComponent implements ClockTickEngine.Listener {
+    private final ClockTickEngine clock;
+
+    public ClockFace(ClockTickEngine clock, Font font, Color color) {
+        this.clock = clock;
+        setFont(font);
+        setForeground(color);
+        setOpaque(false);
+        clock.addListener(this);
+    }
+
+    @Override
+    public void onTick(ClockTickEngine clock) {
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        FontMetrics metrics = getFontMetrics(getFont());
+        Insets insets = getInsets();
+        return new Dimension(
+            metrics.charsWidth(clock.getTimeChars(), 0, clock.getTimeChars().length) + insets.left + insets.right,
+            metrics.getHeight() + insets.top + insets.bottom
+        );
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        char[] chars = clock.getTimeChars();
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setFont(getFont());
+        g2.setColor(getForeground());
+        FontMetrics metrics = g2.getFontMetrics();
+        int x = (getWidth() - metrics.charsWidth(chars, 0, chars.length)) / 2;
+        int y = (getHeight() - metrics.getHeight()) / 2 + metrics.getAscent();
+        g2.drawChars(chars, 0, chars.length, x, y);
+    }
+}
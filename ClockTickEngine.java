@@ -0,0 +1,125 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Once-a-second clock shared by the Swing front ends. Each tick formats the
+ * wall-clock time into a reused char buffer and exposes it together with the
+ * integer minute of day, so neither the display nor the alarm check needs a
+ * formatter, a String or a LocalTime per tick. The date text is rebuilt only
+ * when the day changes.
+ */
+public class ClockTickEngine {
+    public interface Listener {
+        // Called on the event dispatch thread
+        void onTick(ClockTickEngine clock);
+    }
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final char[] timeChars = {'0', '0', ':', '0', '0', ':', '0', '0'};
+    private final DateTimeFormatter dateFormatter;
+    private final TimeZone zone;
+    private final javax.swing.Timer timer;
+    private Listener[] listeners = new Listener[0];
+    private int secondOfDay = -1;
+    private int minuteOfDay = -1;
+    private long epochDay = Long.MIN_VALUE;
+    private boolean minuteChanged;
+    private boolean dayChanged;
+    private String dateText = "";
+
+    public ClockTickEngine(DateTimeFormatter dateFormatter) {
+        this.dateFormatter = dateFormatter;
+        // getDefault() hands out a copy, so fetch it once rather than per tick
+        this.zone = TimeZone.getDefault();
+        this.timer = new javax.swing.Timer(1000, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public void addListener(Listener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void start() {
+        tick();
+        // Line the ticks up with the start of each wall-clock second
+        timer.setInitialDelay(1000 - (int) (System.currentTimeMillis() % 1000));
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    // For checks that drive the clock through a day faster than real time
+    void tick(long now) {
+        long localSeconds = Math.floorDiv(now + zone.getOffset(now), 1000L);
+        long day = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+        int second = Math.floorMod(localSeconds, SECONDS_PER_DAY);
+
+        if (second != secondOfDay || day != epochDay) {
+            secondOfDay = second;
+            int minute = second / 60;
+            minuteChanged = minute != minuteOfDay || day != epochDay;
+            minuteOfDay = minute;
+            dayChanged = day != epochDay;
+            if (dayChanged) {
+                epochDay = day;
+                dateText = dateFormatter == null ? "" : LocalDate.ofEpochDay(day).format(dateFormatter);
+            }
+            formatTime(second);
+        } else {
+            minuteChanged = false;
+            dayChanged = false;
+        }
+
+        Listener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onTick(this);
+        }
+    }
+
+    // HH:mm:ss for the current tick. The buffer is reused; copy it to keep it
+    public char[] getTimeChars() {
+        return timeChars;
+    }
+
+    public int getSecondOfDay() {
+        return secondOfDay;
+    }
+
+    public int getMinuteOfDay() {
+        return minuteOfDay;
+    }
+
+    public boolean isMinuteChanged() {
+        return minuteChanged;
+    }
+
+    public boolean isDayChanged() {
+        return dayChanged;
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    private void formatTime(int second) {
+        int hours = second / 3600;
+        int minutes = (second / 60) % 60;
+        int seconds = second % 60;
+        timeChars[0] = (char) ('0' + hours / 10);
+        timeChars[1] = (char) ('0' + hours % 10);
+        timeChars[3] = (char) ('0' + minutes / 10);
+        timeChars[4] = (char) ('0' + minutes % 10);
+        timeChars[6] = (char) ('0' + seconds / 10);
+        timeChars[7] = (char) ('0' + seconds % 10);
+    }
+}
@@ -0,0 +1,261 @@
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decoded PCM for alarm sound files, keyed by path and modification time
+ * and bounded by a total byte budget with least-recently-used eviction.
+ * Alarms sharing a sound file decode it once; later fires only stat the
+ * file to see whether it changed. Files that decode to more than the whole
+ * budget, going by their headers, are never cached. A sound's conversion
+ * to AudioMixer samples is kept with it and counts against the budget.
+ */
+public class DecodedSoundCache {
+    public static final class Sound {
+        private final AudioFormat format;
+        private final byte[] data;
+        // Set once by getMixerSamples(), under the cache's lock
+        private volatile short[] mixerSamples;
+
+        Sound(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+
+        public AudioFormat getFormat() {
+            return format;
+        }
+
+        // Shared by every user of the cache; do not modify
+        public byte[] getData() {
+            return data;
+        }
+
+        public AudioInputStream openStream() {
+            return new AudioInputStream(new ByteArrayInputStream(data), format,
+                    data.length / format.getFrameSize());
+        }
+
+        long bytes() {
+            short[] samples = mixerSamples;
+            return data.length + (samples == null ? 0 : samples.length * 2L);
+        }
+    }
+
+    private static final class Key {
+        final String path;
+        final long lastModified;
+        final long length;
+
+        Key(File file) {
+            this.path = file.getAbsolutePath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return path.equals(other.path) && lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + Long.hashCode(lastModified);
+        }
+    }
+
+    private static final int MAX_KNOWN_LENGTHS = 256;
+
+    private final long budgetBytes;
+    // Access order, so iteration starts at the least recently used entry
+    private final Map<Key, Sound> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Decoded lengths read from file headers, so a file that is streamed is not re-parsed every fire
+    private final Map<Key, Long> decodedLengths = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+            return size() > MAX_KNOWN_LENGTHS;
+        }
+    };
+    private final ExecutorService prewarmer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "sound-cache-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DecodedSoundCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the decoded sound, decoding and caching it on a miss. The file
+     * must exist; a changed file replaces its stale entry.
+     */
+    public Sound get(File file) throws IOException, UnsupportedAudioFileException {
+        Key key = new Key(file);
+        synchronized (this) {
+            Sound cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Decode outside the lock so other sounds stay available meanwhile
+        Sound sound = decode(file);
+        synchronized (this) {
+            removeStale(key.path);
+            if (sound.data.length <= budgetBytes && !entries.containsKey(key)) {
+                entries.put(key, sound);
+                usedBytes += sound.data.length;
+                evictToBudget();
+            }
+        }
+        return sound;
+    }
+
+    /**
+     * The sound as AudioMixer samples, converted on first use. While the
+     * sound is cached the samples stay with it, and their bytes count
+     * against the budget, so they can evict it or other sounds.
+     */
+    public short[] getMixerSamples(Sound sound) {
+        short[] samples = sound.mixerSamples;
+        if (samples != null) {
+            return samples;
+        }
+        // Convert outside the lock, like decoding
+        samples = AudioMixer.toMixerSamples(sound.data, sound.format);
+        synchronized (this) {
+            if (sound.mixerSamples != null) {
+                return sound.mixerSamples;
+            }
+            // Only a few sound files are cached, so a scan of the values is cheap
+            boolean cached = entries.containsValue(sound);
+            sound.mixerSamples = samples;
+            if (cached) {
+                usedBytes += samples.length * 2L;
+                evictToBudget();
+            }
+        }
+        return samples;
+    }
+
+    // Files that decode to more than the budget are streamed from disk instead
+    public boolean isCacheable(File file) {
+        Key key = new Key(file);
+        Long known;
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                return true;
+            }
+            known = decodedLengths.get(key);
+        }
+        if (known == null) {
+            known = decodedLength(file);
+            synchronized (this) {
+                decodedLengths.put(key, known);
+            }
+        }
+        return known >= 0 && known <= budgetBytes;
+    }
+
+    // Decodes the file in the background so its first fire is already a hit
+    public void prewarm(File file) {
+        prewarmer.execute(() -> {
+            try {
+                if (file.isFile() && isCacheable(file)) {
+                    get(file);
+                }
+            } catch (IOException | UnsupportedAudioFileException e) {
+                System.err.println("Error loading sound " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    private void removeStale(String path) {
+        Iterator<Map.Entry<Key, Sound>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Sound> entry = it.next();
+            if (entry.getKey().path.equals(path)) {
+                usedBytes -= entry.getValue().bytes();
+                it.remove();
+            }
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<Sound> it = entries.values().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= it.next().bytes();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Bytes of PCM the file decodes to, from its header; -1 when the header
+     * does not say, as for compressed formats whose frames hold many samples.
+     */
+    static long decodedLength(File file) {
+        try {
+            AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(file);
+            AudioFormat format = fileFormat.getFormat();
+            long frames = fileFormat.getFrameLength();
+            if (frames == AudioSystem.NOT_SPECIFIED) {
+                return -1;
+            }
+            AudioFormat.Encoding encoding = format.getEncoding();
+            if (encoding == AudioFormat.Encoding.PCM_SIGNED || encoding == AudioFormat.Encoding.PCM_UNSIGNED) {
+                return frames * format.getFrameSize();
+            }
+            if (format.getFrameRate() != format.getSampleRate()) {
+                return -1;
+            }
+            // Decoded to 16-bit PCM, as StreamingAudioPlayer.toPcm does
+            return frames * format.getChannels() * 2;
+        } catch (UnsupportedAudioFileException | IOException e) {
+            return -1;
+        }
+    }
+
+    private static Sound decode(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream in = StreamingAudioPlayer.toPcm(AudioSystem.getAudioInputStream(file))) {
+            return new Sound(in.getFormat(), in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.alarmclock.controller;
+
+import com.alarmclock.metrics.AlarmLatencyMetrics;
+import com.alarmclock.service.AlarmCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class MetricsController {
+
+    @Autowired
+    private AlarmCache alarmCache;
+
+    // Alarm latency percentiles per stage, in milliseconds past due, and alarm cache hit ratio
+    @GetMapping("/metrics")
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = AlarmLatencyMetrics.get().toMap();
+        metrics.put("alarmCache", alarmCache.toMap());
+        return metrics;
+    }
+}
\ No newline at end of file
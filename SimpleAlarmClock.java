@@ -3,17 +3,19 @@ import javax.sound.sampled.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.List;
+import java.util.function.LongConsumer;
 
 public class SimpleAlarmClock extends JFrame {
-    private final List<AlarmItem> alarms = new ArrayList<>();
-    private final javax.swing.Timer clockTimer;
-    private final JLabel timeLabel;
-    private final DefaultListModel<String> alarmListModel;
-    private final JList<String> alarmList;
-    private AlarmSoundPlayer soundPlayer;
+    // Saved alarms, loaded into columns that also tell which are due
+    private final AlarmColumnStore store = AlarmDataManager.loadAlarmStore();
+    private final AlarmStoreListModel alarms = new AlarmStoreListModel(store);
+    private final ClockTickEngine clock = new ClockTickEngine(null);
+    private final LongConsumer fireAlarm = this::fireAlarm;
+    private final AlarmFiringPipeline<AlarmItem> firing = new AlarmFiringPipeline<>(
+        this, 256, 4, false, AlarmItem::getMessage, this::playAlarmSound, this::alarmAcknowledged);
+    private final ClockFace timeLabel;
+    private final JList<AlarmItem> alarmList;
     private final JComboBox<String> soundTypeCombo;
 
     public SimpleAlarmClock() {
@@ -23,8 +25,8 @@ public class SimpleAlarmClock extends JFrame {
         setSize(500, 400);
         setLocationRelativeTo(null);
 
-        // Initialize sound player
-        soundPlayer = new AlarmSoundPlayer();
+        // Render the alarm tones before the first alarm needs them
+        ToneBank.prewarm();
 
         // Create main panels
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
@@ -32,8 +34,7 @@ public class SimpleAlarmClock extends JFrame {
 
         // Create clock panel
         JPanel clockPanel = new JPanel();
-        timeLabel = new JLabel("", JLabel.CENTER);
-        timeLabel.setFont(new Font("Arial", Font.BOLD, 36));
+        timeLabel = new ClockFace(clock, new Font("Arial", Font.BOLD, 36), UIManager.getColor("Label.foreground"));
         clockPanel.add(timeLabel);
 
         // Create alarm control panel
@@ -76,8 +77,9 @@ public class SimpleAlarmClock extends JFrame {
         // Create alarm list panel
         JPanel listPanel = new JPanel(new BorderLayout());
         listPanel.setBorder(BorderFactory.createTitledBorder("Alarms"));
-        alarmListModel = new DefaultListModel<>();
-        alarmList = new JList<>(alarmListModel);
+        alarmList = new JList<>(alarms);
+        new AlarmCellRenderer<AlarmItem>(AlarmItem::getTime,
+            alarm -> alarm.getMessage() + " (" + (alarm.isRepeatDaily() ? "Daily" : "Once") + ")").install(alarmList);
         JScrollPane scrollPane = new JScrollPane(alarmList);
         listPanel.add(scrollPane, BorderLayout.CENTER);
 
@@ -90,11 +92,8 @@ public class SimpleAlarmClock extends JFrame {
         setContentPane(mainPanel);
 
         // Setup timer for clock
-        clockTimer = new javax.swing.Timer(1000, e -> {
-            updateClockDisplay();
-            checkAlarms();
-        });
-        clockTimer.start();
+        clock.addListener(clock -> checkAlarms());
+        clock.start();
 
         // Add button listener
         addButton.addActionListener(e -> {
@@ -107,8 +106,12 @@ public class SimpleAlarmClock extends JFrame {
                 boolean repeat = repeatCheckbox.isSelected();
 
                 AlarmItem alarm = new AlarmItem(timeString, message, soundType, repeat);
-                alarms.add(alarm);
-                updateAlarmList();
+                if (!alarms.add(alarm)) {
+                    JOptionPane.showMessageDialog(this, 
+                        "The alarm could not be saved.", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 
                 JOptionPane.showMessageDialog(this, 
                     "Alarm added successfully for " + timeString, 
@@ -123,78 +126,32 @@ public class SimpleAlarmClock extends JFrame {
         // Delete button listener
         deleteButton.addActionListener(e -> {
             int selectedIndex = alarmList.getSelectedIndex();
-            if (selectedIndex >= 0 && selectedIndex < alarms.size()) {
-                alarms.remove(selectedIndex);
-                updateAlarmList();
+            if (selectedIndex >= 0 && selectedIndex < alarms.getSize()) {
+                alarms.remove(store.idAt(selectedIndex));
             }
         });
-
-        // Load saved alarms
-        loadAlarms();
-    }
-
-    private void updateClockDisplay() {
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        timeLabel.setText(sdf.format(new Date()));
-    }
-
-    private void updateAlarmList() {
-        alarmListModel.clear();
-        for (AlarmItem alarm : alarms) {
-            alarmListModel.addElement(alarm.toString());
-        }
-        saveAlarms();
     }
 
     private void checkAlarms() {
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
-        String currentTime = sdf.format(new Date());
-
-        Iterator<AlarmItem> iterator = alarms.iterator();
-        while (iterator.hasNext()) {
-            AlarmItem alarm = iterator.next();
-            if (alarm.isEnabled() && alarm.getTime().equals(currentTime)) {
-                triggerAlarm(alarm);
-                
-                if (!alarm.isRepeatDaily()) {
-                    iterator.remove();
-                }
-            }
-        }
-        updateAlarmList();
+        store.advanceTo(clock.getMinuteOfDay(), fireAlarm);
     }
 
-    private void triggerAlarm(AlarmItem alarm) {
-        soundPlayer.playSound(alarm.getSoundType());
-        
-        int choice = JOptionPane.showConfirmDialog(
-            this,
-            alarm.getMessage(),
-            "Alarm!",
-            JOptionPane.DEFAULT_OPTION,
-            JOptionPane.WARNING_MESSAGE
-        );
-        
-        soundPlayer.stop();
+    // Only enabled alarms come due
+    private void fireAlarm(long id) {
+        firing.fire(store.toAlarmItem(store.rowOf(id)));
     }
 
-    private void saveAlarms() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream("alarms.dat"))) {
-            oos.writeObject(alarms);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    // Runs on a firing worker, so several alarms can ring at once
+    private Runnable playAlarmSound(AlarmItem alarm) {
+        AlarmSoundPlayer soundPlayer = new AlarmSoundPlayer();
+        soundPlayer.playSound(alarm.getSoundType());
+        return soundPlayer::stop;
     }
 
-    @SuppressWarnings("unchecked")
-    private void loadAlarms() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream("alarms.dat"))) {
-            List<AlarmItem> loadedAlarms = (List<AlarmItem>) ois.readObject();
-            alarms.clear();
-            alarms.addAll(loadedAlarms);
-            updateAlarmList();
-        } catch (IOException | ClassNotFoundException e) {
-            // Ignore - probably first run
+    private void alarmAcknowledged(AlarmItem alarm, AlarmFiringPipeline.Acknowledgement acknowledgement) {
+        // One-shot alarms go once dismissed, unless deleted while ringing
+        if (!alarm.isRepeatDaily()) {
+            alarms.remove(alarm.getId());
         }
     }
 
@@ -0,0 +1,131 @@
+package com.alarmclock.scheduling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Snoozes kept as short-lived entries on their own timing wheel, next to the
+ * alarm they belong to, instead of moving the alarm's time. Snoozing and
+ * cancelling are O(1); each snooze of a chain is counted until the alarm is
+ * dismissed, and a snooze past {@code maxSnoozes} is refused. An entry
+ * expires when it fires, so nothing needs to be persisted or cleaned up.
+ */
+public class SnoozeScheduler<T> {
+    public static final int DEFAULT_MAX_SNOOZES = 3;
+
+    public static final class Snooze<T> {
+        private final T alarm;
+        private AlarmTimingWheel.Entry<Snooze<T>> entry;
+        private int count;
+
+        private Snooze(T alarm) {
+            this.alarm = alarm;
+        }
+
+        public T getAlarm() {
+            return alarm;
+        }
+
+        public int getMinuteOfDay() {
+            return entry.getMinuteOfDay();
+        }
+
+        // Snoozes so far in this chain, including the pending one
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isPending() {
+            return entry.isScheduled();
+        }
+    }
+
+    private final AlarmTimingWheel<Snooze<T>> wheel = new AlarmTimingWheel<>();
+    // One chain per alarm; kept after the entry fires so the next snooze counts on
+    private final Map<T, Snooze<T>> chains = new HashMap<>();
+    private final int maxSnoozes;
+    private final Consumer<Snooze<T>> expire = this::expire;
+    private Consumer<Snooze<T>> sink;
+
+    public SnoozeScheduler() {
+        this(DEFAULT_MAX_SNOOZES);
+    }
+
+    public SnoozeScheduler(int maxSnoozes) {
+        if (maxSnoozes < 0) {
+            throw new IllegalArgumentException("Max snoozes must not be negative: " + maxSnoozes);
+        }
+        this.maxSnoozes = maxSnoozes;
+    }
+
+    /**
+     * Makes the alarm go off again {@code minutes} after {@code fromMinuteOfDay},
+     * replacing any snooze still pending for it. Returns false, leaving nothing
+     * scheduled, once the chain has used up its snoozes.
+     */
+    public boolean snooze(T alarm, int fromMinuteOfDay, int minutes) {
+        if (minutes <= 0 || minutes >= AlarmTimingWheel.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Snooze minutes out of range: " + minutes);
+        }
+        Snooze<T> snooze = chains.get(alarm);
+        if (snooze == null) {
+            snooze = new Snooze<>(alarm);
+            chains.put(alarm, snooze);
+        }
+        if (snooze.count >= maxSnoozes) {
+            wheel.cancel(snooze.entry);
+            return false;
+        }
+        int minuteOfDay = (fromMinuteOfDay + minutes) % AlarmTimingWheel.MINUTES_PER_DAY;
+        if (snooze.entry == null) {
+            snooze.entry = wheel.schedule(minuteOfDay, snooze);
+        } else {
+            wheel.reschedule(snooze.entry, minuteOfDay);
+        }
+        snooze.count++;
+        return true;
+    }
+
+    // Drops the alarm's chain, pending snooze included; call on dismiss or delete
+    public boolean cancel(T alarm) {
+        Snooze<T> snooze = chains.remove(alarm);
+        return snooze != null && wheel.cancel(snooze.entry);
+    }
+
+    public Snooze<T> get(T alarm) {
+        return chains.get(alarm);
+    }
+
+    public boolean isPending(T alarm) {
+        Snooze<T> snooze = chains.get(alarm);
+        return snooze != null && snooze.isPending();
+    }
+
+    /**
+     * Fires the snoozes due up to {@code minuteOfDay}; see
+     * {@link AlarmTimingWheel#advanceTo}. Each one is taken off the wheel
+     * before it reaches the sink, while its chain stays open for re-snoozing.
+     */
+    public int advanceTo(int minuteOfDay, Consumer<Snooze<T>> sink) {
+        this.sink = sink;
+        try {
+            return wheel.advanceTo(minuteOfDay, expire);
+        } finally {
+            this.sink = null;
+        }
+    }
+
+    private void expire(Snooze<T> snooze) {
+        wheel.cancel(snooze.entry);
+        sink.accept(snooze);
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    public int getMaxSnoozes() {
+        return maxSnoozes;
+    }
+}
\ No newline at end of file
@@ -1,23 +1,97 @@
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class SoundPlayer {
+    // Files over the cache budget are streamed, which keeps them off the heap;
+    // set -Dalarm.sound.streaming=false to load them into a Clip instead
+    private static final boolean STREAMING =
+        Boolean.parseBoolean(System.getProperty("alarm.sound.streaming", "true"));
+    // Decoded alarm files shared by every player
+    private static final DecodedSoundCache CACHE =
+        new DecodedSoundCache(Long.getLong("alarm.sound.cacheBytes", 32L * 1024 * 1024));
+
     private Clip clip;
+    private final List<StreamingAudioPlayer.Playback> streams = new CopyOnWriteArrayList<>();
+    private final List<AudioMixer.Voice> voices = new CopyOnWriteArrayList<>();
 
     public void playSound(String soundFile) {
+        playSound(soundFile, false);
+    }
+
+    // With loop set the sound repeats until stopSound()
+    public void playSound(String soundFile, boolean loop) {
+        File file = new File(soundFile);
+        boolean mixerRejected = false;
+        // Cacheable files are mixed into the shared line, so every ringing
+        // alarm can be heard and stopped without a line of its own
+        if (file.isFile() && CACHE.isCacheable(file)) {
+            try {
+                short[] samples = CACHE.getMixerSamples(CACHE.get(file));
+                AudioMixer.Voice voice = AudioMixer.shared().play(samples, 1.0f, loop);
+                if (voice != null) {
+                    voices.removeIf(v -> !v.isActive());
+                    voices.add(voice);
+                    return;
+                }
+            } catch (UnsupportedAudioFileException | IOException e) {
+                System.err.println("Error playing sound: " + e.getMessage());
+                return;
+            } catch (IllegalArgumentException e) {
+                // The mixer only takes 8/16-bit PCM; stream other formats on a line of their own
+                mixerRejected = true;
+            }
+        }
+
+        if (STREAMING || mixerRejected) {
+            streams.removeIf(stream -> !stream.isPlaying());
+            streams.add(StreamingAudioPlayer.play(() -> open(file), loop));
+            return;
+        }
+
         try {
-            File file = new File(soundFile);
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(file);
+            AudioInputStream audioStream = open(file);
             clip = AudioSystem.getClip();
             clip.open(audioStream);
-            clip.start();
+            if (loop) {
+                clip.loop(Clip.LOOP_CONTINUOUSLY);
+            } else {
+                clip.start();
+            }
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
             System.err.println("Error playing sound: " + e.getMessage());
         }
     }
 
+    // Decodes the file ahead of its first alarm
+    public void prewarm(String soundFile) {
+        if (soundFile != null) {
+            CACHE.prewarm(new File(soundFile));
+        }
+    }
+
+    public static DecodedSoundCache getCache() {
+        return CACHE;
+    }
+
+    private static AudioInputStream open(File file) throws IOException, UnsupportedAudioFileException {
+        if (!file.isFile() || !CACHE.isCacheable(file)) {
+            return AudioSystem.getAudioInputStream(file);
+        }
+        return CACHE.get(file).openStream();
+    }
+
     public void stopSound() {
+        for (AudioMixer.Voice voice : voices) {
+            voice.stop();
+        }
+        voices.clear();
+        for (StreamingAudioPlayer.Playback stream : streams) {
+            stream.stop();
+        }
+        streams.clear();
         if (clip != null && clip.isRunning()) {
             clip.stop();
             clip.close();
@@ -25,6 +99,16 @@ public class SoundPlayer {
     }
 
     public boolean isPlaying() {
+        for (AudioMixer.Voice voice : voices) {
+            if (voice.isActive()) {
+                return true;
+            }
+        }
+        for (StreamingAudioPlayer.Playback stream : streams) {
+            if (stream.isPlaying()) {
+                return true;
+            }
+        }
         return clip != null && clip.isRunning();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
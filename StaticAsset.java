@@ -0,0 +1,226 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One static file held in memory with its compressed variants. A gzip copy
+ * is taken from a precompressed "file.gz" next to it or made once at load;
+ * a "file.br" next to it is served as brotli, which the JDK cannot encode.
+ * The file and both siblings are checked for changes at most every
+ * {@code alarm.web.reloadCheckMillis}, so requests normally touch no disk.
+ */
+public class StaticAsset {
+    private static final long RELOAD_CHECK_NANOS =
+            Long.getLong("alarm.web.reloadCheckMillis", 1000L) * 1_000_000L;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    /** Immutable contents of the file as of one load. */
+    public static final class Contents {
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final byte[] brotli;
+        private final long lastModifiedMillis;
+        private final String lastModified;
+        private final String identityETag;
+        private final String gzipETag;
+        private final String brotliETag;
+
+        Contents(byte[] identity, byte[] gzip, byte[] brotli, long lastModifiedMillis) {
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+            // HTTP dates have one-second resolution
+            this.lastModifiedMillis = lastModifiedMillis / 1000 * 1000;
+            this.lastModified = HTTP_DATE.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(this.lastModifiedMillis), ZoneOffset.UTC));
+            this.identityETag = eTag(identity, "");
+            this.gzipETag = gzip == null ? null : eTag(gzip, "-gzip");
+            this.brotliETag = brotli == null ? null : eTag(brotli, "-br");
+        }
+
+        // Taken from the bytes, so each variant has its own tag and a changed
+        // sibling changes only its own
+        private static String eTag(byte[] body, String suffix) {
+            CRC32 crc = new CRC32();
+            crc.update(body, 0, body.length);
+            return "\"" + Long.toHexString(body.length) + "-" + Long.toHexString(crc.getValue()) + suffix + "\"";
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        // Null when compression would not make the file smaller
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        // Null unless a .br file sits next to the asset
+        public byte[] getBrotli() {
+            return brotli;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        // Tag of the variant sent with this Content-Encoding, null for identity
+        public String getETag(String contentEncoding) {
+            if ("gzip".equals(contentEncoding)) {
+                return gzipETag;
+            }
+            if ("br".equals(contentEncoding)) {
+                return brotliETag;
+            }
+            return identityETag;
+        }
+
+        /**
+         * True if the request's If-None-Match or, failing that,
+         * If-Modified-Since shows the client already has the variant sent
+         * with this Content-Encoding.
+         */
+        public boolean isNotModified(String contentEncoding, String ifNoneMatch, String ifModifiedSince) {
+            if (ifNoneMatch != null) {
+                String eTag = getETag(contentEncoding);
+                for (String tag : ifNoneMatch.split(",")) {
+                    String trimmed = tag.trim();
+                    if (trimmed.startsWith("W/")) {
+                        trimmed = trimmed.substring(2);
+                    }
+                    if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (ifModifiedSince != null) {
+                try {
+                    long since = ZonedDateTime.parse(ifModifiedSince.trim(), HTTP_DATE).toInstant().toEpochMilli();
+                    return lastModifiedMillis <= since;
+                } catch (DateTimeParseException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Path path;
+    private final String contentType;
+    private volatile Contents contents;
+    private volatile long checkedAtNanos;
+    private long loadedModified = -1;
+    private long loadedSize = -1;
+    private long loadedGzipModified = -1;
+    private long loadedBrotliModified = -1;
+
+    public StaticAsset(String filePath, String contentType) {
+        this.path = Paths.get(filePath);
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Current contents, reloaded first if the file changed since the last
+     * check. Throws NoSuchFileException once the file is gone.
+     */
+    public Contents get() throws IOException {
+        Contents current = contents;
+        if (current != null && System.nanoTime() - checkedAtNanos < RELOAD_CHECK_NANOS) {
+            return current;
+        }
+        return reloadIfChanged();
+    }
+
+    private synchronized Contents reloadIfChanged() throws IOException {
+        if (contents != null && System.nanoTime() - checkedAtNanos < RELOAD_CHECK_NANOS) {
+            return contents;
+        }
+        long modified;
+        long size;
+        try {
+            modified = Files.getLastModifiedTime(path).toMillis();
+            size = Files.size(path);
+        } catch (NoSuchFileException e) {
+            contents = null;
+            loadedModified = -1;
+            throw e;
+        }
+        long gzipModified = siblingModified(".gz");
+        long brotliModified = siblingModified(".br");
+        if (contents == null || modified != loadedModified || size != loadedSize
+                || gzipModified != loadedGzipModified || brotliModified != loadedBrotliModified) {
+            byte[] identity = Files.readAllBytes(path);
+            byte[] gzip = loadGzip(identity, modified);
+            byte[] brotli = loadSibling(".br", modified);
+            // A newer sibling moves Last-Modified too, for clients without ETags
+            long lastModified = modified;
+            if (gzip != null) {
+                lastModified = Math.max(lastModified, gzipModified);
+            }
+            if (brotli != null) {
+                lastModified = Math.max(lastModified, brotliModified);
+            }
+            contents = new Contents(identity, gzip, brotli, lastModified);
+            loadedModified = modified;
+            loadedSize = size;
+            loadedGzipModified = gzipModified;
+            loadedBrotliModified = brotliModified;
+        }
+        checkedAtNanos = System.nanoTime();
+        return contents;
+    }
+
+    // A precompressed .gz that is not older than the file wins over compressing here
+    private byte[] loadGzip(byte[] identity, long modified) throws IOException {
+        byte[] precompressed = loadSibling(".gz", modified);
+        if (precompressed != null) {
+            return precompressed;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(identity);
+        }
+        return out.size() < identity.length ? out.toByteArray() : null;
+    }
+
+    // -1 when there is no such sibling
+    private long siblingModified(String suffix) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path.resolveSibling(path.getFileName() + suffix)).toMillis();
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    private byte[] loadSibling(String suffix, long modified) throws IOException {
+        Path sibling = path.resolveSibling(path.getFileName() + suffix);
+        try {
+            if (Files.getLastModifiedTime(sibling).toMillis() < modified) {
+                return null;
+            }
+            return Files.readAllBytes(sibling);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+import javax.sound.sampled.*;
+import java.io.IOException;
+
+/**
+ * Plays audio by pumping it through a SourceDataLine on its own thread,
+ * one small buffer at a time, instead of decoding the whole file into a
+ * Clip first. Playback starts after the first buffer is read regardless of
+ * file size, and memory use stays at one buffer plus the line's own.
+ * Looping reopens the source stream but keeps the line open.
+ */
+public class StreamingAudioPlayer {
+    public static final int DEFAULT_BUFFER_BYTES = 8 * 1024;
+
+    public interface Source {
+        // Opened again for every pass when looping
+        AudioInputStream open() throws IOException, UnsupportedAudioFileException;
+    }
+
+    public static Playback play(Source source, boolean loop) {
+        return play(source, loop, DEFAULT_BUFFER_BYTES);
+    }
+
+    public static Playback play(Source source, boolean loop, int bufferBytes) {
+        Playback playback = new Playback(source, loop, bufferBytes);
+        Thread thread = new Thread(playback::pump, "alarm-audio-stream");
+        thread.setDaemon(true);
+        thread.start();
+        return playback;
+    }
+
+    public static class Playback {
+        private final Source source;
+        private final boolean loop;
+        private final byte[] buffer;
+        private volatile SourceDataLine line;
+        private volatile boolean stopped;
+        private volatile boolean playing = true;
+
+        Playback(Source source, boolean loop, int bufferBytes) {
+            this.source = source;
+            this.loop = loop;
+            this.buffer = new byte[bufferBytes];
+        }
+
+        public void stop() {
+            stopped = true;
+            SourceDataLine current = line;
+            if (current != null) {
+                // Makes a blocked write() on the pump thread return early
+                current.stop();
+                current.flush();
+            }
+        }
+
+        public boolean isPlaying() {
+            return playing;
+        }
+
+        private void pump() {
+            AudioInputStream in = null;
+            try {
+                in = toPcm(source.open());
+                AudioFormat format = in.getFormat();
+                int frameSize = format.getFrameSize();
+                int chunk = buffer.length - buffer.length % frameSize;
+
+                SourceDataLine opened = AudioSystem.getSourceDataLine(format);
+                opened.open(format, chunk * 2);
+                line = opened;
+                if (stopped) {
+                    return;
+                }
+                opened.start();
+
+                boolean wroteThisPass = false;
+                while (!stopped) {
+                    int read = in.read(buffer, 0, chunk);
+                    if (read < 0) {
+                        in.close();
+                        // Stop rather than spin on a source with no audio
+                        if (!loop || !wroteThisPass) {
+                            break;
+                        }
+                        in = toPcm(source.open());
+                        wroteThisPass = false;
+                        continue;
+                    }
+                    opened.write(buffer, 0, read);
+                    wroteThisPass |= read > 0;
+                }
+                if (!stopped) {
+                    opened.drain();
+                }
+            } catch (IOException | UnsupportedAudioFileException | LineUnavailableException
+                    | IllegalArgumentException e) {
+                System.err.println("Error playing sound: " + e.getMessage());
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException e) {
+                        // nothing left to release
+                    }
+                }
+                SourceDataLine current = line;
+                if (current != null) {
+                    current.stop();
+                    current.close();
+                }
+                playing = false;
+            }
+        }
+    }
+
+    // Compressed or otherwise non-PCM input is decoded to 16-bit signed PCM
+    static AudioInputStream toPcm(AudioInputStream in) {
+        AudioFormat format = in.getFormat();
+        AudioFormat.Encoding encoding = format.getEncoding();
+        if (encoding == AudioFormat.Encoding.PCM_SIGNED || encoding == AudioFormat.Encoding.PCM_UNSIGNED) {
+            return in;
+        }
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        return AudioSystem.getAudioInputStream(pcm, in);
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered samples for the built-in alarm sounds, in the AudioMixer's
+ * format. Each tone is rendered once and shared by every voice playing it,
+ * instead of recomputing three seconds of samples for every alarm.
+ */
+public class ToneBank {
+    public static final String[] SOUND_TYPES = {"Standard", "High Pitch", "Low Pitch", "Pulse"};
+
+    private static final double DURATION_SECONDS = 3.0;
+
+    private static final Map<String, short[]> tones = new ConcurrentHashMap<>();
+
+    // Renders every tone on a background thread, so the first alarm does not pay for it
+    public static void prewarm() {
+        Thread thread = new Thread(() -> {
+            for (String soundType : SOUND_TYPES) {
+                tone(soundType);
+            }
+        }, "tone-bank-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Unknown or missing sound types play the standard tone
+    public static String normalize(String soundType) {
+        for (String known : SOUND_TYPES) {
+            if (known.equals(soundType)) {
+                return known;
+            }
+        }
+        return SOUND_TYPES[0];
+    }
+
+    // The returned array is shared and must not be modified
+    public static short[] tone(String soundType) {
+        return tones.computeIfAbsent(normalize(soundType), ToneBank::render);
+    }
+
+    private static short[] render(String soundType) {
+        byte[] pcm = ToneSynth.render(spec(soundType), AudioMixer.FORMAT, DURATION_SECONDS);
+        return AudioMixer.toMixerSamples(pcm, AudioMixer.FORMAT);
+    }
+
+    public static ToneSynth.Tone spec(String soundType) {
+        switch (normalize(soundType)) {
+            case "High Pitch":
+                return new ToneSynth.Tone(1000, 0.5); // 1000 Hz, 50% volume
+
+            case "Low Pitch":
+                return new ToneSynth.Tone(200, 0.5); // 200 Hz, 50% volume
+
+            case "Pulse":
+                return new ToneSynth.Tone(500, 0.5, 2.0, 0.2); // 500 Hz, 2 Hz pulse down to 20%
+
+            default: // Standard
+                return new ToneSynth.Tone(440, 0.5, 4.0, 0.0); // 440 Hz, 4 Hz beep pattern
+        }
+    }
+}
\ No newline at end of file
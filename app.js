@@ -2,11 +2,15 @@ class AlarmClock {
     constructor() {
         this.alarms = [];
         this.apiBaseUrl = '/api/alarms';
+        // While the event stream is up the server detects alarms and pushes changes
+        this.eventsConnected = false;
+        this.eventsReconnecting = false;
         
         this.initializeElements();
         this.startClock();
         this.setupEventListeners();
         this.loadAlarms();
+        this.connectEvents();
         this.requestNotificationPermission();
     }
 
@@ -48,6 +52,44 @@ class AlarmClock {
         }
     }
 
+    connectEvents() {
+        if (!('EventSource' in window)) {
+            return;
+        }
+        const source = new EventSource(`${this.apiBaseUrl}/events`);
+
+        source.onopen = () => {
+            // Events sent while disconnected are lost, so resync once
+            if (this.eventsReconnecting) {
+                this.loadAlarms();
+            }
+            this.eventsConnected = true;
+            this.eventsReconnecting = false;
+        };
+        source.onerror = () => {
+            this.eventsConnected = false;
+            this.eventsReconnecting = true;
+        };
+
+        source.addEventListener('created', event => this.upsertAlarm(JSON.parse(event.data)));
+        source.addEventListener('updated', event => this.upsertAlarm(JSON.parse(event.data)));
+        source.addEventListener('deleted', event => this.removeLocalAlarm(JSON.parse(event.data).id));
+        source.addEventListener('reload', () => this.loadAlarms());
+        source.addEventListener('fired', event => {
+            const fired = JSON.parse(event.data);
+            const alarm = this.alarms.find(a => a.id === fired.alarmId) || {
+                id: fired.alarmId,
+                time: fired.time,
+                message: fired.message,
+                sound: fired.sound,
+                repeat: fired.repeat,
+                snooze: fired.snooze,
+                active: true
+            };
+            this.triggerAlarm(alarm);
+        });
+    }
+
     async addAlarm() {
         const time = this.timeInput.value;
         const message = this.messageInput.value || 'Wake up!';
@@ -81,8 +123,7 @@ class AlarmClock {
             }
             
             const alarm = await response.json();
-            this.alarms.push(alarm);
-            this.renderAlarms();
+            this.upsertAlarm(alarm);
             this.clearForm();
         } catch (error) {
             console.error('Error adding alarm:', error);
@@ -99,8 +140,7 @@ class AlarmClock {
                 active: true
             };
             
-            this.alarms.push(alarm);
-            this.renderAlarms();
+            this.upsertAlarm(alarm);
             this.clearForm();
         }
     }
@@ -115,13 +155,11 @@ class AlarmClock {
                 throw new Error('Failed to delete alarm');
             }
 
-            this.alarms = this.alarms.filter(alarm => alarm.id !== id);
-            this.renderAlarms();
+            this.removeLocalAlarm(id);
         } catch (error) {
             console.error('Error removing alarm:', error);
             // Remove from local array even if server fails
-            this.alarms = this.alarms.filter(alarm => alarm.id !== id);
-            this.renderAlarms();
+            this.removeLocalAlarm(id);
         }
     }
 
@@ -152,16 +190,11 @@ class AlarmClock {
                 }
                 
                 const updatedAlarm = await response.json();
-                const index = this.alarms.findIndex(a => a.id === id);
-                if (index !== -1) {
-                    this.alarms[index] = updatedAlarm;
-                    this.renderAlarms();
-                }
+                this.upsertAlarm(updatedAlarm);
             } catch (error) {
                 console.error('Error snoozing alarm:', error);
                 // Update locally even if server fails
-                alarm.time = updatedTime;
-                this.renderAlarms();
+                this.upsertAlarm({ ...alarm, time: updatedTime });
             }
         }
     }
@@ -232,6 +265,9 @@ class AlarmClock {
     }
 
     checkAlarms(now) {
+        if (this.eventsConnected) {
+            return;
+        }
         const currentTime = `${String(now.getHours()).padStart(2, '0')}:${String(now.getMinutes()).padStart(2, '0')}`;
         
         this.alarms.forEach(alarm => {
@@ -274,31 +310,72 @@ class AlarmClock {
         }
         
         this.alarms.forEach(alarm => {
-            const alarmElement = document.createElement('div');
-            alarmElement.className = 'alarm-item';
-            alarmElement.setAttribute('data-alarm-id', alarm.id);
-            alarmElement.innerHTML = `
-                <div>
-                    <div class="alarm-time">${alarm.time}</div>
-                    <div class="alarm-message">${alarm.message}</div>
-                </div>
-                <div class="actions">
-                    <button class="btn-snooze">Snooze</button>
-                    <button class="btn-danger">Delete</button>
-                </div>
-            `;
-            
-            // Add event listeners
-            const snoozeButton = alarmElement.querySelector('.btn-snooze');
-            const deleteButton = alarmElement.querySelector('.btn-danger');
-            
-            snoozeButton.addEventListener('click', () => this.snoozeAlarm(alarm.id));
-            deleteButton.addEventListener('click', () => this.removeAlarm(alarm.id));
-            
-            this.alarmsContainer.appendChild(alarmElement);
+            this.alarmsContainer.appendChild(this.createAlarmElement(alarm));
         });
     }
 
+    // Applies one created or updated alarm; repeats of the same state are harmless
+    upsertAlarm(alarm) {
+        const index = this.alarms.findIndex(a => a.id === alarm.id);
+        const existing = this.alarmsContainer.querySelector(`[data-alarm-id="${alarm.id}"]`);
+        if (index === -1) {
+            this.alarms.push(alarm);
+        } else {
+            this.alarms[index] = alarm;
+        }
+        // The first alarm replaces the "No alarms set." placeholder
+        if (index === -1 && this.alarms.length === 1) {
+            this.alarmsContainer.innerHTML = '';
+        }
+
+        const alarmElement = this.createAlarmElement(alarm);
+        if (existing) {
+            existing.replaceWith(alarmElement);
+        } else {
+            this.alarmsContainer.appendChild(alarmElement);
+        }
+    }
+
+    removeLocalAlarm(id) {
+        const index = this.alarms.findIndex(a => a.id === id);
+        if (index === -1) {
+            return;
+        }
+        this.alarms.splice(index, 1);
+        const alarmElement = this.alarmsContainer.querySelector(`[data-alarm-id="${id}"]`);
+        if (alarmElement) {
+            alarmElement.remove();
+        }
+        if (this.alarms.length === 0) {
+            this.alarmsContainer.innerHTML = '<p>No alarms set.</p>';
+        }
+    }
+
+    createAlarmElement(alarm) {
+        const alarmElement = document.createElement('div');
+        alarmElement.className = 'alarm-item';
+        alarmElement.setAttribute('data-alarm-id', alarm.id);
+        alarmElement.innerHTML = `
+            <div>
+                <div class="alarm-time">${alarm.time}</div>
+                <div class="alarm-message">${alarm.message}</div>
+            </div>
+            <div class="actions">
+                <button class="btn-snooze">Snooze</button>
+                <button class="btn-danger">Delete</button>
+            </div>
+        `;
+        
+        // Add event listeners
+        const snoozeButton = alarmElement.querySelector('.btn-snooze');
+        const deleteButton = alarmElement.querySelector('.btn-danger');
+        
+        snoozeButton.addEventListener('click', () => this.snoozeAlarm(alarm.id));
+        deleteButton.addEventListener('click', () => this.removeAlarm(alarm.id));
+        
+        return alarmElement;
+    }
+
     clearForm() {
         this.timeInput.value = '';
         this.messageInput.value = '';
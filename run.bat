@@ -1,4 +1,4 @@
 @echo off
-"C:\Program Files\Java\jdk-24\bin\javac" *.java
-"C:\Program Files\Java\jdk-24\bin\java" AlarmClockGUI
+"C:\Program Files\Java\jdk-24\bin\javac" -d . *.java
+"C:\Program Files\Java\jdk-24\bin\java" -cp . AlarmClockGUI
 pause 
\ No newline at end of file
@@ -1,6 +1,6 @@
 @echo off
 echo Compiling Java files...
-javac AlarmClockApp.java AlarmItem.java AlarmSoundPlayer.java AlarmDataManager.java
+javac -d . AlarmClockApp.java AlarmItem.java AlarmSoundPlayer.java ToneBank.java ToneSynth.java AudioMixer.java DecodedSoundCache.java StreamingAudioPlayer.java AlarmDataManager.java AlarmJournal.java AlarmBinaryFormat.java AlarmColumnStore.java AlarmTimingWheel.java SnoozeScheduler.java ClockTickEngine.java ClockFace.java AlarmStoreListModel.java AlarmCellRenderer.java AlarmFiringPipeline.java LatencyHistogram.java AlarmLatencyMetrics.java AlarmLatencyMetricsMBean.java
 if %errorlevel% neq 0 (
     echo Compilation failed.
     pause
@@ -9,5 +9,5 @@ if %errorlevel% neq 0 (
 echo Compilation successful.
 echo.
 echo Running Alarm Clock Application...
-java AlarmClockApp
+java -cp . AlarmClockApp
 pause 
\ No newline at end of file
@@ -1,6 +1,6 @@
 @echo off
 echo Compiling Java server...
-javac AlarmClockServer.java
+javac -d . AlarmClockServer.java StaticAsset.java AlarmApiHandler.java AlarmJson.java AlarmDataManager.java AlarmJournal.java AlarmBinaryFormat.java AlarmColumnStore.java AlarmItem.java AlarmTimingWheel.java AlarmExecutors.java
 if %errorlevel% neq 0 (
     echo Compilation failed.
     pause
@@ -9,5 +9,5 @@ if %errorlevel% neq 0 (
 echo Compilation successful.
 echo.
 echo Starting Alarm Clock Web Server...
-java AlarmClockServer
+java -cp . AlarmClockServer
 pause 
\ No newline at end of file
@@ -1,6 +1,6 @@
 @echo off
 echo Compiling Java Alarm Clock...
-javac SimpleAlarmClock.java AlarmItem.java AlarmSoundPlayer.java
+javac -d . SimpleAlarmClock.java AlarmItem.java AlarmSoundPlayer.java ToneBank.java ToneSynth.java AudioMixer.java DecodedSoundCache.java StreamingAudioPlayer.java AlarmDataManager.java AlarmJournal.java AlarmBinaryFormat.java AlarmColumnStore.java AlarmTimingWheel.java ClockTickEngine.java ClockFace.java AlarmStoreListModel.java AlarmCellRenderer.java AlarmFiringPipeline.java
 if %errorlevel% neq 0 (
     echo Compilation failed.
     pause
@@ -9,5 +9,5 @@ if %errorlevel% neq 0 (
 echo Compilation successful.
 echo.
 echo Running Java Alarm Clock...
-java SimpleAlarmClock
+java -cp . SimpleAlarmClock
 pause 
\ No newline at end of file
@@ -0,0 +1,27 @@
+@echo off
+echo Compiling checks...
+if exist test-classes rmdir /s /q test-classes
+mkdir test-classes
+rem AlarmManager is built against the desktop Alarm.class; Alarm.java is the web app's entity
+copy /y Alarm.class test-classes >nul
+javac -cp test-classes -d test-classes AlarmManager.java AlarmRegistry.java SoundPlayer.java DecodedSoundCache.java StreamingAudioPlayer.java AudioMixer.java ToneBank.java ToneSynth.java AlarmLatencyMetrics.java AlarmLatencyMetricsMBean.java LatencyHistogram.java AlarmTimingWheel.java AlarmItem.java AlarmJournal.java AlarmBinaryFormat.java AlarmColumnStore.java AlarmJson.java SnoozeScheduler.java ClockTickEngine.java ClockFace.java test\Check.java test\AlarmTimingWheelTest.java test\AlarmJournalTest.java test\AlarmJsonTest.java test\SnoozeSchedulerTest.java test\AlarmColumnStoreTest.java test\AlarmBinaryFormatTest.java test\AlarmRegistryTest.java test\ClockTickEngineTest.java test\DecodedSoundCacheTest.java test\AlarmManagerTest.java test\ToneBankTest.java test\ToneSynthTest.java test\AlarmEventLoadTest.java test\AlarmDueQueryTest.java test\AlarmBulkImportTest.java test\HttpLoad.java test\StaticAssetLoadTest.java test\StartupTimeTest.java test\VirtualThreadLoadTest.java
+if %errorlevel% neq 0 (
+    echo Compilation failed.
+    pause
+    exit /b 1
+)
+echo.
+for %%t in (AlarmTimingWheelTest AlarmJournalTest AlarmJsonTest SnoozeSchedulerTest AlarmColumnStoreTest AlarmBinaryFormatTest AlarmRegistryTest ClockTickEngineTest DecodedSoundCacheTest AlarmManagerTest ToneBankTest ToneSynthTest) do (
+    java -cp test-classes %%t
+    if errorlevel 1 (
+        echo %%t failed.
+        pause
+        exit /b 1
+    )
+)
+echo.
+echo All checks passed.
+rem AlarmEventLoadTest, AlarmBulkImportTest and VirtualThreadLoadTest need the Spring Boot app running, StaticAssetLoadTest
+rem run_alarm_web.bat's server, AlarmDueQueryTest the H2 jar and StartupTimeTest the commands to start;
+rem see their class comments
+pause
\ No newline at end of file
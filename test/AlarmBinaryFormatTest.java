@@ -0,0 +1,182 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link AlarmBinaryFormat}: round trips, corrupt headers, string tables and
+ * records, and a timed load of 1M alarms against the serialized format it
+ * replaced.
+ */
+public class AlarmBinaryFormatTest {
+    private static final int LOAD_ALARMS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        File dir = Files.createTempDirectory("alarm-binary").toFile();
+        try {
+            roundTrips(new File(dir, "basic.dat"));
+            skipsUnreadableTimesOnWrite(new File(dir, "times.dat"));
+            rejectsCorruptStringTable(new File(dir, "strings.dat"));
+            skipsCorruptRecords(new File(dir, "records.dat"));
+            loadBenchmark(new File(dir, "large.dat"), new File(dir, "large.ser"));
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+        Check.passed(AlarmBinaryFormatTest.class);
+    }
+
+    private static void roundTrips(File file) throws IOException {
+        AlarmItem silent = alarm(2, "23:59", "", null);
+        silent.setEnabled(false);
+        AlarmBinaryFormat.write(file, List.of(alarm(1, "00:00", "Wake up", "Pulse"), silent));
+
+        for (AlarmBinaryFormat.Snapshot snapshot : List.of(AlarmBinaryFormat.read(file), AlarmBinaryFormat.open(file))) {
+            Check.equal(2, snapshot.size(), "records");
+            AlarmItem first = snapshot.get(0);
+            Check.equal(1L, first.getId(), "id");
+            Check.equal("00:00", first.getTime(), "time");
+            Check.equal("Wake up", first.getMessage(), "message");
+            Check.equal("Pulse", first.getSoundType(), "sound");
+            Check.equal(5, first.getSnooze(), "snooze");
+            Check.that(first.isRepeatDaily() && first.isEnabled(), "flags");
+            Check.equal(1439, snapshot.minuteOfDayAt(1), "minute of day");
+            Check.equal("", snapshot.messageAt(1), "empty message stays empty");
+            Check.equal(null, snapshot.soundTypeAt(1), "null sound");
+            Check.that(!snapshot.isEnabledAt(1), "disabled flag");
+        }
+    }
+
+    private static void skipsUnreadableTimesOnWrite(File file) throws IOException {
+        AlarmBinaryFormat.write(file, List.of(alarm(1, "7.30", "Bad", "Pulse"), alarm(2, "07:30", "Good", "Pulse")));
+        AlarmBinaryFormat.Snapshot snapshot = AlarmBinaryFormat.read(file);
+        Check.equal(1, snapshot.size(), "alarm with an unreadable time left out");
+        Check.equal(2L, snapshot.idAt(0), "remaining alarm");
+    }
+
+    private static void rejectsCorruptStringTable(File file) throws Exception {
+        AlarmBinaryFormat.write(file, List.of(alarm(1, "06:00", "Wake up", "Pulse")));
+        long table = AlarmBinaryFormat.HEADER_BYTES + AlarmBinaryFormat.RECORD_BYTES;
+        byte[] intact = Files.readAllBytes(file.toPath());
+
+        patchInt(file, table, -5);
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.read(file), "negative string length");
+        patchInt(file, table, Integer.MAX_VALUE);
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.open(file), "string past the end");
+
+        Files.write(file.toPath(), intact);
+        patchInt(file, 12, Integer.MAX_VALUE);
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.read(file), "string count past the end");
+        patchInt(file, 12, -1);
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.read(file), "negative string count");
+
+        Files.write(file.toPath(), intact);
+        patchInt(file, 8, -1);
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.read(file), "negative record count");
+
+        Files.write(file.toPath(), Arrays.copyOf(intact, intact.length - 3));
+        Check.fails(IOException.class, () -> AlarmBinaryFormat.read(file), "truncated string table");
+    }
+
+    private static void skipsCorruptRecords(File file) throws IOException {
+        List<AlarmItem> alarms = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            alarms.add(alarm(id, "09:0" + id, "Alarm " + id, "Standard"));
+        }
+        AlarmBinaryFormat.write(file, alarms);
+        long second = AlarmBinaryFormat.HEADER_BYTES + AlarmBinaryFormat.RECORD_BYTES;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(second + 16);
+            raf.writeInt(999);
+            raf.seek(second + AlarmBinaryFormat.RECORD_BYTES + 8);
+            raf.writeShort(1440);
+        }
+
+        AlarmBinaryFormat.Snapshot snapshot = AlarmBinaryFormat.read(file);
+        Check.equal(2, snapshot.size(), "bad records skipped");
+        Check.equal(1L, snapshot.idAt(0), "first record kept");
+        Check.equal(4L, snapshot.idAt(1), "last record kept");
+        Check.equal("Alarm 4", snapshot.get(1).getMessage(), "kept record decodes");
+        Check.fails(IndexOutOfBoundsException.class, () -> snapshot.get(2), "read past the kept records");
+        Check.equal(2, AlarmColumnStore.from(snapshot).size(), "store built from the kept records");
+    }
+
+    /**
+     * Load time for 1M alarms: Java serialization, as alarms.dat was stored
+     * before, against reading, mapping and scanning the binary snapshot and
+     * building the column store the Swing apps use.
+     */
+    private static void loadBenchmark(File binary, File serialized) throws Exception {
+        List<AlarmItem> alarms = new ArrayList<>(LOAD_ALARMS);
+        String[] messages = {"Wake up", "Stand-up", "Pills", "Gym"};
+        String[] sounds = {"Standard", "High Pitch", "Low Pitch", "Pulse"};
+        for (int i = 0; i < LOAD_ALARMS; i++) {
+            int minute = i % 1440;
+            alarms.add(alarm(i + 1, String.format("%02d:%02d", minute / 60, minute % 60),
+                    messages[i % messages.length] + " " + (i % 100), sounds[i % sounds.length]));
+        }
+        AlarmBinaryFormat.write(binary, alarms);
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(serialized)))) {
+            out.writeObject(alarms);
+        }
+        alarms = null;
+
+        long start = System.nanoTime();
+        List<?> legacy;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(serialized)))) {
+            legacy = (List<?>) in.readObject();
+        }
+        long legacyNanos = System.nanoTime() - start;
+        Check.equal(LOAD_ALARMS, legacy.size(), "serialized alarms");
+        legacy = null;
+
+        start = System.nanoTime();
+        AlarmBinaryFormat.Snapshot mapped = AlarmBinaryFormat.open(binary);
+        long openNanos = System.nanoTime() - start;
+        Check.equal(LOAD_ALARMS, mapped.size(), "mapped alarms");
+
+        start = System.nanoTime();
+        long minutes = 0;
+        for (int i = 0; i < mapped.size(); i++) {
+            minutes += mapped.minuteOfDayAt(i);
+        }
+        long scanNanos = System.nanoTime() - start;
+        Check.that(minutes > 0, "scanned minutes");
+
+        start = System.nanoTime();
+        AlarmColumnStore store = AlarmColumnStore.from(AlarmBinaryFormat.read(binary));
+        long storeNanos = System.nanoTime() - start;
+        Check.equal(LOAD_ALARMS, store.size(), "alarms in the store");
+
+        System.out.printf("AlarmBinaryFormatTest: %d alarms (%d KB binary, %d KB serialized): "
+                        + "deserialized in %d ms; mapped in %d ms, scanned in %d ms; column store in %d ms%n",
+                LOAD_ALARMS, binary.length() / 1024, serialized.length() / 1024, legacyNanos / 1_000_000,
+                openNanos / 1_000_000, scanNanos / 1_000_000, storeNanos / 1_000_000);
+        Check.that(binary.length() < serialized.length(), "binary snapshot should be smaller");
+        Check.that(openNanos + scanNanos < legacyNanos, "mapping and scanning should beat deserializing");
+    }
+
+    private static void patchInt(File file, long position, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            raf.writeInt(value);
+        }
+    }
+
+    private static AlarmItem alarm(long id, String time, String message, String sound) {
+        AlarmItem alarm = new AlarmItem(time, message, sound, 5, true);
+        alarm.setId(id);
+        return alarm;
+    }
+}
@@ -0,0 +1,117 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Import time for 100k alarms through the web app's bulk endpoints against
+ * one POST /api/alarms per alarm, then a bulk update, toggle and delete of
+ * the same alarms. Single posts are timed for a sample and scaled up.
+ * Needs the Spring Boot app running, so run_tests.bat compiles it but does
+ * not run it:
+ *
+ * <pre>
+ * java -cp test-classes AlarmBulkImportTest http://localhost:8080 100000
+ * </pre>
+ *
+ * The alarms are created switched off, so the dispatch engine never fires
+ * them, and are deleted again at the end.
+ */
+public class AlarmBulkImportTest {
+    private static final int DEFAULT_ALARMS = 100_000;
+    private static final int SINGLE_SAMPLE = 2_000;
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ALARMS;
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        String marker = "import-" + System.nanoTime();
+
+        List<Long> singles = new ArrayList<>(SINGLE_SAMPLE);
+        List<Long> bulk = new ArrayList<>(count);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < SINGLE_SAMPLE; i++) {
+                singles.addAll(ids(send(http, "POST", base + "/api/alarms", alarm(null, i, marker))));
+            }
+            long singleNanos = System.nanoTime() - start;
+            Check.equal(SINGLE_SAMPLE, singles.size(), "alarms created one by one");
+
+            StringBuilder json = new StringBuilder(count * 100).append('[');
+            for (int i = 0; i < count; i++) {
+                json.append(i == 0 ? "" : ",").append(alarm(null, i, marker));
+            }
+            start = System.nanoTime();
+            bulk.addAll(ids(send(http, "POST", base + "/api/alarms/bulk", json.append(']').toString())));
+            long importNanos = System.nanoTime() - start;
+            Check.equal(count, bulk.size(), "alarms created in bulk");
+
+            json.setLength(0);
+            json.append('[');
+            for (int i = 0; i < count; i++) {
+                json.append(i == 0 ? "" : ",").append(alarm(bulk.get(i), i, marker + " updated"));
+            }
+            start = System.nanoTime();
+            int updated = ids(send(http, "PUT", base + "/api/alarms/bulk", json.append(']').toString())).size();
+            long updateNanos = System.nanoTime() - start;
+            Check.equal(count, updated, "alarms updated in bulk");
+
+            start = System.nanoTime();
+            String toggled = send(http, "POST", base + "/api/alarms/bulk/active?active=false", bulk.toString());
+            long toggleNanos = System.nanoTime() - start;
+            Check.that(toggled.contains("\"updated\":" + count), "alarms toggled in bulk: " + toggled);
+
+            start = System.nanoTime();
+            String deleted = send(http, "POST", base + "/api/alarms/bulk/delete", bulk.toString());
+            long deleteNanos = System.nanoTime() - start;
+            Check.that(deleted.contains("\"deleted\":" + count), "alarms deleted in bulk: " + deleted);
+            bulk.clear();
+
+            double singleMillis = singleNanos / 1e6 * count / SINGLE_SAMPLE;
+            System.out.printf("AlarmBulkImportTest: %d alarms imported in %d ms in bulk, about %.0f ms one by one "
+                            + "(%.1fx); bulk update %d ms, toggle %d ms, delete %d ms%n",
+                    count, importNanos / 1_000_000, singleMillis, singleMillis / (importNanos / 1e6),
+                    updateNanos / 1_000_000, toggleNanos / 1_000_000, deleteNanos / 1_000_000);
+            Check.that(importNanos * 5 < singleMillis * 1e6, "bulk import should be at least 5x faster");
+        } finally {
+            singles.addAll(bulk);
+            if (!singles.isEmpty()) {
+                send(http, "POST", base + "/api/alarms/bulk/delete", singles.toString());
+            }
+        }
+        Check.passed(AlarmBulkImportTest.class);
+    }
+
+    private static String alarm(Long id, int i, String message) {
+        int minute = i % 1440;
+        return String.format("{%s\"time\":\"%02d:%02d\",\"message\":\"%s %d\",\"sound\":\"Standard\","
+                        + "\"repeat\":false,\"snooze\":5,\"active\":false}",
+                id == null ? "" : "\"id\":" + id + ",", minute / 60, minute % 60, message, i);
+    }
+
+    private static List<Long> ids(String json) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private static String send(HttpClient http, String method, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        Check.that(response.statusCode() / 100 == 2, method + " " + url + " answered " + response.statusCode());
+        return response.body();
+    }
+}
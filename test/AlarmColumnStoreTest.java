@@ -0,0 +1,201 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link AlarmColumnStore}: rows, the id index and the per-minute lists stay
+ * consistent under random puts and removes, advancing fires only what is
+ * due, and a heap footprint check in the manner of JOL against the alarm
+ * set the Swing apps held before the store.
+ */
+public class AlarmColumnStoreTest {
+    private static final String[] MESSAGES = {"Wake up!", "Stand-up", "Pills", "Gym", "Pick up the kids"};
+    private static final String[] SOUNDS = {"Standard", "High Pitch", "Low Pitch", "Pulse"};
+
+    public static void main(String[] args) throws IOException {
+        putsAndReadsRows();
+        removalMovesTheLastRow();
+        advanceFiresDueRows();
+        matchesAMapUnderRandomChanges();
+        footprint();
+        Check.passed(AlarmColumnStoreTest.class);
+    }
+
+    private static void putsAndReadsRows() {
+        AlarmColumnStore store = new AlarmColumnStore();
+        AlarmItem alarm = new AlarmItem("07:30", "Wake up!", "Pulse", 10, true);
+        alarm.setId(42);
+        alarm.setEnabled(false);
+        store.put(alarm);
+        store.put(7, 0, null, null, 0, false, true);
+
+        int row = store.rowOf(42);
+        Check.equal(450, store.minuteOfDayAt(row), "minute of day");
+        Check.equal("Wake up!", store.messageAt(row), "message");
+        Check.equal("Pulse", store.soundTypeAt(row), "sound");
+        Check.equal(10, store.snoozeAt(row), "snooze");
+        Check.that(store.isRepeatDailyAt(row) && !store.isEnabledAt(row), "flags");
+        Check.equal(null, store.messageAt(store.rowOf(7)), "null message");
+
+        AlarmItem copy = store.toAlarmItem(row);
+        Check.equal("07:30", copy.getTime(), "time of the materialized alarm");
+        Check.equal(42L, copy.getId(), "id of the materialized alarm");
+        Check.that(!copy.isEnabled(), "enabled flag of the materialized alarm");
+
+        store.put(42, 451, "Later", "Pulse", 10, true, true);
+        Check.equal(2, store.size(), "put with a known id overwrites");
+        Check.equal(451, store.minuteOfDayAt(store.rowOf(42)), "moved to another minute");
+        Check.fails(IllegalArgumentException.class, () -> store.put(0, 1, null, null, 0, false, true), "id 0");
+        Check.fails(IllegalArgumentException.class, () -> store.put(1, 1440, null, null, 0, false, true), "minute 1440");
+    }
+
+    private static void removalMovesTheLastRow() {
+        AlarmColumnStore store = new AlarmColumnStore();
+        for (long id = 1; id <= 3; id++) {
+            store.put(id, 600, "m" + id, "Standard", 5, false, true);
+        }
+        Check.that(store.remove(1), "remove first row");
+        Check.that(!store.remove(1), "second remove is a no-op");
+        Check.equal(3L, store.idAt(0), "last row moved into the hole");
+        Check.equal("m3", store.messageAt(store.rowOf(3)), "moved row keeps its columns");
+        List<Long> due = new ArrayList<>();
+        store.forEachAt(600, due::add);
+        Check.equal(2, due.size(), "minute list relinked after the move: " + due);
+    }
+
+    private static void advanceFiresDueRows() {
+        AlarmColumnStore store = new AlarmColumnStore();
+        store.put(1, 420, "a", null, 0, true, true);
+        store.put(2, 421, "b", null, 0, false, true);
+        store.put(3, 421, "off", null, 0, false, false);
+        store.put(4, 425, "c", null, 0, false, true);
+
+        List<Long> fired = new ArrayList<>();
+        store.advanceTo(419, fired::add);
+        // One-shot alarms remove themselves while the advance is running
+        store.advanceTo(422, id -> {
+            fired.add(id);
+            if (id == 1) {
+                store.remove(2);
+            }
+        });
+        Check.equal(List.of(1L), fired, "disabled and removed rows do not fire");
+        fired.clear();
+        Check.equal(0, store.advanceTo(422, fired::add), "same minute again");
+        store.advanceTo(600, fired::add);
+        Check.equal(List.of(), fired, "a jump past the catch-up window fires only the current minute");
+    }
+
+    // Random puts, moves and removes, checked against a map after each batch
+    private static void matchesAMapUnderRandomChanges() {
+        Random random = new Random(6);
+        AlarmColumnStore store = new AlarmColumnStore();
+        Map<Long, Integer> minutes = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Check.equal(minutes.remove(id) != null, store.remove(id), "remove " + id);
+            } else {
+                int minute = random.nextInt(AlarmTimingWheel.MINUTES_PER_DAY);
+                store.put(id, minute, MESSAGES[(int) (id % MESSAGES.length)], SOUNDS[minute % SOUNDS.length],
+                        5, false, true);
+                minutes.put(id, minute);
+            }
+            if (i % 20_000 == 0) {
+                verify(store, minutes);
+            }
+        }
+        verify(store, minutes);
+    }
+
+    private static void verify(AlarmColumnStore store, Map<Long, Integer> minutes) {
+        Check.equal(minutes.size(), store.size(), "size");
+        int listed = 0;
+        for (int minute = 0; minute < AlarmTimingWheel.MINUTES_PER_DAY; minute++) {
+            int at = minute;
+            listed += store.forEachAt(minute, id -> Check.equal(minutes.get(id), at, "minute list of " + id));
+        }
+        Check.equal(minutes.size(), listed, "every row in exactly one minute list");
+        for (Map.Entry<Long, Integer> entry : minutes.entrySet()) {
+            int row = store.rowOf(entry.getKey());
+            Check.that(row >= 0, "id " + entry.getKey() + " indexed");
+            Check.equal(entry.getValue(), store.minuteOfDayAt(row), "minute of " + entry.getKey());
+        }
+    }
+
+    /**
+     * Retained heap per alarm, measured as the heap in use after GC with the
+     * structure held and then dropped. Before the store, AlarmClockApp held
+     * the loaded snapshot, an AlarmItem decoded from each record (its own
+     * "HH:mm" string, message and sound shared through the string table),
+     * the list model's copy of the list, and a timing-wheel entry plus an
+     * identity map entry per alarm. The store replaces all of those.
+     */
+    private static void footprint() throws IOException {
+        int alarms = 300_000;
+        List<AlarmItem> source = new ArrayList<>(alarms);
+        for (int i = 0; i < alarms; i++) {
+            AlarmItem alarm = new AlarmItem(AlarmTimingWheel.formatMinuteOfDay(i % AlarmTimingWheel.MINUTES_PER_DAY),
+                    MESSAGES[i % MESSAGES.length], SOUNDS[i % SOUNDS.length], 5, i % 2 == 0);
+            alarm.setId(i + 1);
+            source.add(alarm);
+        }
+        File file = File.createTempFile("alarm-store", ".dat");
+        try {
+            AlarmBinaryFormat.write(file, source);
+            source = null;
+
+            long base = usedHeap();
+            Object[] before = heldBeforeTheStore(file);
+            long beforeBytes = usedHeap() - base;
+            Check.equal(alarms, ((List<?>) before[1]).size(), "alarms held before");
+            before = null;
+
+            base = usedHeap();
+            AlarmColumnStore store = AlarmColumnStore.from(AlarmBinaryFormat.read(file));
+            long storeBytes = usedHeap() - base;
+            Check.equal(alarms, store.size(), "alarms in the store");
+
+            double perAlarmBefore = (double) beforeBytes / alarms;
+            double perAlarmStore = (double) storeBytes / alarms;
+            System.out.printf("AlarmColumnStoreTest: %.1f bytes per alarm held before, %.1f in the store (%.1fx)%n",
+                    perAlarmBefore, perAlarmStore, perAlarmBefore / perAlarmStore);
+            Check.that(perAlarmBefore >= 5 * perAlarmStore,
+                    "store should take at least 5x less heap per alarm");
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Object[] heldBeforeTheStore(File file) throws IOException {
+        AlarmBinaryFormat.Snapshot snapshot = AlarmBinaryFormat.read(file);
+        List<AlarmItem> decoded = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            decoded.add(snapshot.get(i));
+        }
+        List<AlarmItem> model = new ArrayList<>(decoded);
+        AlarmTimingWheel<AlarmItem> wheel = new AlarmTimingWheel<>();
+        Map<AlarmItem, AlarmTimingWheel.Entry<AlarmItem>> entries = new IdentityHashMap<>();
+        for (AlarmItem alarm : model) {
+            entries.put(alarm, wheel.schedule(alarm.getMinuteOfDay(), alarm));
+        }
+        return new Object[] {snapshot, decoded, model, wheel, entries};
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
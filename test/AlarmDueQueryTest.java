@@ -0,0 +1,139 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Due-alarm queries against a 1M-row H2 table laid out as Hibernate maps
+ * the web app's Alarm entity: AlarmRepository's DUE_BETWEEN query on the
+ * (active, minute_of_day) index, for one minute and streamed for an hour
+ * with the repository's fetch size, against the findAll() and filter in
+ * memory it replaced. Needs the H2 driver that Maven puts in the local
+ * repository, so run_tests.bat compiles it but does not run it:
+ *
+ * <pre>
+ * java -cp test-classes;%USERPROFILE%\.m2\repository\com\h2database\h2\2.2.224\h2-2.2.224.jar AlarmDueQueryTest
+ * </pre>
+ */
+public class AlarmDueQueryTest {
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH = 500;
+    private static final int FETCH_SIZE = 500;
+    private static final int ROUNDS = 5;
+    private static final int MORNING = 7 * 60;
+
+    // AlarmRepository.DUE_BETWEEN as Hibernate renders it
+    private static final String DUE_BETWEEN = "select id, time, message, sound, repeat, snooze, active, minute_of_day"
+            + " from alarm where active = true and minute_of_day between ? and ? order by minute_of_day, id";
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:alarms;DB_CLOSE_DELAY=-1")) {
+            long start = System.nanoTime();
+            createTable(connection);
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet plan = statement.executeQuery("explain " + DUE_BETWEEN.replace("?", "0"))) {
+                plan.next();
+                String text = plan.getString(1);
+                Check.that(text.toUpperCase().contains("IDX_ALARM_ACTIVE_MINUTE"), "due query uses the index: " + text);
+            }
+
+            long scanNanos = Long.MAX_VALUE;
+            long minuteNanos = Long.MAX_VALUE;
+            long hourNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                start = System.nanoTime();
+                int scanned = findAllAndFilter(connection, MORNING);
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                int minute = due(connection, MORNING, MORNING);
+                minuteNanos = Math.min(minuteNanos, System.nanoTime() - start);
+                Check.equal(scanned, minute, "due alarms at 07:00");
+
+                start = System.nanoTime();
+                int hour = due(connection, MORNING, MORNING + 59);
+                hourNanos = Math.min(hourNanos, System.nanoTime() - start);
+                Check.that(hour > minute, "an hour holds more alarms than a minute");
+            }
+
+            System.out.printf("AlarmDueQueryTest: %d rows loaded in %d ms; one minute: findAll and filter %.1f ms, "
+                            + "indexed %.2f ms (%.0fx); one hour streamed in %.1f ms%n",
+                    ROWS, loadMillis, scanNanos / 1e6, minuteNanos / 1e6, (double) scanNanos / minuteNanos,
+                    hourNanos / 1e6);
+            Check.that(minuteNanos * 10 < scanNanos, "indexed query should be at least 10x faster than a full scan");
+        }
+        Check.passed(AlarmDueQueryTest.class);
+    }
+
+    private static void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table alarm (id bigint not null primary key, time varchar(255),"
+                    + " message varchar(255), sound varchar(255), repeat boolean not null, snooze integer not null,"
+                    + " active boolean not null, minute_of_day integer)");
+            statement.execute("create index idx_alarm_active_minute on alarm (active, minute_of_day)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into alarm (id, time, message, sound, repeat, snooze, active, minute_of_day)"
+                        + " values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                int minute = (int) ((i * 7919L) % 1440);
+                insert.setLong(1, i + 1);
+                insert.setString(2, String.format("%02d:%02d", minute / 60, minute % 60));
+                insert.setString(3, "Alarm " + i);
+                insert.setString(4, "Standard");
+                insert.setBoolean(5, i % 3 == 0);
+                insert.setInt(6, 5);
+                // A quarter of the alarms are switched off
+                insert.setBoolean(7, i % 4 != 0);
+                insert.setInt(8, minute);
+                insert.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+    }
+
+    // What a due check cost before: every row, then the time strings parsed in memory
+    private static int findAllAndFilter(Connection connection, int minuteOfDay) throws SQLException {
+        int due = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "select id, time, message, sound, repeat, snooze, active, minute_of_day from alarm")) {
+            while (rows.next()) {
+                String time = rows.getString(2);
+                if (rows.getBoolean(7) && time != null
+                        && Integer.parseInt(time.substring(0, 2)) * 60 + Integer.parseInt(time.substring(3, 5)) == minuteOfDay) {
+                    due++;
+                }
+            }
+        }
+        return due;
+    }
+
+    private static int due(Connection connection, int fromMinute, int toMinute) throws SQLException {
+        int due = 0;
+        try (PreparedStatement query = connection.prepareStatement(DUE_BETWEEN)) {
+            query.setFetchSize(FETCH_SIZE);
+            query.setInt(1, fromMinute);
+            query.setInt(2, toMinute);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    due++;
+                }
+            }
+        }
+        return due;
+    }
+}
@@ -0,0 +1,242 @@
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load check for the web app's event stream, /api/alarms/events. Connects
+ * 10k clients, creates one alarm and times how long every client takes to
+ * receive the created event, then pushes a burst of updates. Needs the
+ * Spring Boot app running, so run_tests.bat compiles it but does not run it:
+ *
+ * <pre>
+ * java -Dcom.sun.management.jmxremote.port=9010 -Dcom.sun.management.jmxremote.authenticate=false
+ *      -Dcom.sun.management.jmxremote.ssl=false -jar alarm-clock.jar
+ * java -cp test-classes AlarmEventLoadTest http://localhost:8080 10000 localhost:9010
+ * </pre>
+ *
+ * With the optional JMX address it also reads the server's heap after a GC
+ * before connecting, once every client is connected and after the burst,
+ * and checks the heap held per connection stays bounded. The client side
+ * needs about 10k file descriptors.
+ */
+public class AlarmEventLoadTest {
+    private static final int DEFAULT_CLIENTS = 10_000;
+    // Fewer than alarm.events.queueSize, so a client that keeps reading is never dropped for falling behind
+    private static final int BURST_EVENTS = 50;
+    private static final long MAX_DELIVERY_MILLIS = 10_000;
+    private static final long MAX_HEAP_PER_CLIENT = 64 * 1024;
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        ServerHeap heap = args.length > 2 ? new ServerHeap(args[2]) : null;
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        String marker = "load-" + System.nanoTime();
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch created = new CountDownLatch(clients);
+        CountDownLatch burst = new CountDownLatch(clients);
+        List<Client> open = new ArrayList<>(clients);
+        long baseHeap = heap == null ? 0 : heap.usedAfterGc();
+
+        long start = System.nanoTime();
+        HttpRequest subscribe = HttpRequest.newBuilder(URI.create(base + "/api/alarms/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(marker, connected, created, burst);
+            client.response = http.sendAsync(subscribe, HttpResponse.BodyHandlers.fromLineSubscriber(client));
+            open.add(client);
+        }
+        Check.that(connected.await(120, TimeUnit.SECONDS),
+                (clients - connected.getCount()) + " of " + clients + " clients connected");
+        long connectMillis = (System.nanoTime() - start) / 1_000_000;
+        long connectedHeap = heap == null ? 0 : heap.usedAfterGc();
+
+        long id = -1;
+        try {
+            start = System.nanoTime();
+            String body = send(http, "POST", base + "/api/alarms",
+                    "{\"time\":\"03:33\",\"message\":\"" + marker + "\",\"sound\":\"Standard\",\"active\":false}");
+            Matcher matcher = ID.matcher(body);
+            Check.that(matcher.find(), "id in " + body);
+            id = Long.parseLong(matcher.group(1));
+            Check.that(created.await(MAX_DELIVERY_MILLIS, TimeUnit.MILLISECONDS),
+                    created.getCount() + " clients missed the created event");
+            long deliveryMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            for (int i = 1; i <= BURST_EVENTS; i++) {
+                send(http, "PUT", base + "/api/alarms/" + id,
+                        "{\"time\":\"03:33\",\"message\":\"" + marker + " " + i + "\",\"sound\":\"Standard\",\"active\":false}");
+            }
+            Check.that(burst.await(MAX_DELIVERY_MILLIS * 3, TimeUnit.MILLISECONDS),
+                    burst.getCount() + " clients missed the last update");
+            long burstMillis = (System.nanoTime() - start) / 1_000_000;
+            long burstHeap = heap == null ? 0 : heap.usedAfterGc();
+
+            int dropped = 0;
+            for (Client client : open) {
+                if (client.closed) {
+                    dropped++;
+                }
+            }
+            System.out.printf("AlarmEventLoadTest: %d clients connected in %d ms; created event reached all in %d ms; "
+                    + "%d updates in %d ms; %d clients dropped%n",
+                    clients, connectMillis, deliveryMillis, BURST_EVENTS, burstMillis, dropped);
+            Check.equal(0, dropped, "clients dropped while reading");
+            if (heap != null) {
+                long perClient = (connectedHeap - baseHeap) / clients;
+                long perClientAfterBurst = (burstHeap - baseHeap) / clients;
+                System.out.printf("AlarmEventLoadTest: server heap %d bytes per connection, %d after the burst%n",
+                        perClient, perClientAfterBurst);
+                Check.that(perClientAfterBurst <= MAX_HEAP_PER_CLIENT,
+                        perClientAfterBurst + " bytes of server heap per connection");
+            }
+        } finally {
+            if (id >= 0) {
+                send(http, "DELETE", base + "/api/alarms/" + id, null);
+            }
+            for (Client client : open) {
+                client.cancel();
+            }
+            if (heap != null) {
+                heap.close();
+            }
+        }
+        Check.passed(AlarmEventLoadTest.class);
+    }
+
+    private static String send(HttpClient http, String method, String url, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30));
+        if (json == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        Check.that(response.statusCode() / 100 == 2, method + " " + url + " answered " + response.statusCode());
+        return response.body();
+    }
+
+    // One connected browser: counts the events it is waiting for, line by line
+    private static final class Client implements Flow.Subscriber<String> {
+        private final String marker;
+        private final String lastUpdate;
+        private final CountDownLatch connected;
+        private final CountDownLatch created;
+        private final CountDownLatch burst;
+        private Flow.Subscription subscription;
+        private String event;
+        private boolean seenConnected;
+        private boolean seenCreated;
+        private boolean seenLastUpdate;
+        volatile boolean closed;
+        volatile CompletableFuture<?> response;
+
+        Client(String marker, CountDownLatch connected, CountDownLatch created, CountDownLatch burst) {
+            this.marker = marker;
+            this.lastUpdate = marker + " " + BURST_EVENTS + "\"";
+            this.connected = connected;
+            this.created = created;
+            this.burst = burst;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith(":")) {
+                if (!seenConnected) {
+                    seenConnected = true;
+                    connected.countDown();
+                }
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (!seenCreated && "created".equals(event) && line.contains(marker)) {
+                    seenCreated = true;
+                    created.countDown();
+                } else if (!seenLastUpdate && "updated".equals(event) && line.contains(lastUpdate)) {
+                    seenLastUpdate = true;
+                    burst.countDown();
+                }
+            } else if (line.isEmpty()) {
+                event = null;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            closed = true;
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            CompletableFuture<?> pending = response;
+            if (pending != null) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    // The server's heap over remote JMX, read after a full GC
+    private static final class ServerHeap implements AutoCloseable {
+        private final JMXConnector connector;
+        private final MemoryMXBean memory;
+
+        ServerHeap(String hostAndPort) throws Exception {
+            connector = JMXConnectorFactory.connect(
+                    new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + hostAndPort + "/jmxrmi"));
+            MBeanServerConnection server = connector.getMBeanServerConnection();
+            memory = ManagementFactory.newPlatformMXBeanProxy(server, ManagementFactory.MEMORY_MXBEAN_NAME,
+                    MemoryMXBean.class);
+        }
+
+        long usedAfterGc() {
+            long used = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                memory.gc();
+                used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+            }
+            return used;
+        }
+
+        @Override
+        public void close() throws Exception {
+            connector.close();
+        }
+    }
+}
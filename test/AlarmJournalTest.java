@@ -0,0 +1,161 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replay of {@link AlarmJournal}: null fields, long strings, torn and
+ * corrupt tails, and a timed replay of a large log.
+ */
+public class AlarmJournalTest {
+    public static void main(String[] args) throws IOException {
+        File dir = Files.createTempDirectory("alarm-journal").toFile();
+        try {
+            replaysPutsAndRemoves(new File(dir, "basic.journal"));
+            roundTripsNullFields(new File(dir, "nulls.journal"));
+            roundTripsLongStrings(new File(dir, "long.journal"));
+            dropsTornTail(new File(dir, "torn.journal"));
+            dropsCorruptRecord(new File(dir, "corrupt.journal"));
+            replayStress(new File(dir, "stress.journal"));
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+        Check.passed(AlarmJournalTest.class);
+    }
+
+    private static void replaysPutsAndRemoves(File file) throws IOException {
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            journal.appendPut(alarm(1, "07:00", "Wake up", "Standard"));
+            journal.appendPut(alarm(2, "08:30", "Train", "Pulse"));
+            journal.appendPut(alarm(1, "07:15", "Wake up later", "Standard"));
+            journal.appendRemove(2);
+        }
+        Map<Long, AlarmItem> alarms = replay(file);
+        Check.equal(1, alarms.size(), "alarms after replay");
+        Check.equal("07:15", alarms.get(1L).getTime(), "last put wins");
+        Check.equal("Wake up later", alarms.get(1L).getMessage(), "updated message");
+    }
+
+    // The bundled alarms.dat has an alarm without a sound type
+    private static void roundTripsNullFields(File file) throws IOException {
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            AlarmItem silent = alarm(5, "06:45", null, null);
+            silent.setEnabled(false);
+            journal.appendPut(silent);
+            journal.appendPut(alarm(6, "06:50", "", "Standard"));
+        }
+        Map<Long, AlarmItem> alarms = replay(file);
+        AlarmItem silent = alarms.get(5L);
+        Check.that(silent != null, "alarm with null fields replayed");
+        Check.equal(null, silent.getMessage(), "null message");
+        Check.equal(null, silent.getSoundType(), "null sound");
+        Check.that(!silent.isEnabled(), "enabled flag");
+        Check.equal("", alarms.get(6L).getMessage(), "empty message stays empty, not null");
+    }
+
+    // writeUTF stopped at 64 KB; a record past the replay limit is refused
+    // before it is written, and the journal stays usable
+    private static void roundTripsLongStrings(File file) throws IOException {
+        char[] text = new char[100_000];
+        Arrays.fill(text, '\u00e9');
+        String longMessage = new String(text);
+        char[] huge = new char[1 << 20];
+        Arrays.fill(huge, 'x');
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            journal.appendPut(alarm(1, "07:00", longMessage, "Standard"));
+            Check.fails(IOException.class, () -> journal.appendPut(alarm(2, "07:00", new String(huge), "Standard")),
+                    "record over the replay limit");
+            journal.appendPut(alarm(3, "07:05", "after", "Standard"));
+        }
+        Map<Long, AlarmItem> alarms = replay(file);
+        Check.equal(longMessage, alarms.get(1L).getMessage(), "message over 64 KB of UTF-8");
+        Check.that(!alarms.containsKey(2L), "refused record not written");
+        Check.that(alarms.containsKey(3L), "later record replays");
+    }
+
+    private static void dropsTornTail(File file) throws IOException {
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            journal.appendPut(alarm(1, "07:00", "kept", "Standard"));
+            journal.appendPut(alarm(2, "07:01", "torn", "Standard"));
+        }
+        long intact;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+            intact = raf.length();
+        }
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            Check.equal(1, journal.replay(into(new LinkedHashMap<>())), "records before the torn one");
+            Check.that(file.length() < intact, "torn bytes truncated");
+            // Appends after the cut are visible on the next replay
+            journal.appendPut(alarm(3, "07:02", "after", "Standard"));
+        }
+        Map<Long, AlarmItem> alarms = replay(file);
+        Check.equal(2, alarms.size(), "alarms after re-append");
+        Check.that(alarms.containsKey(3L), "record appended after truncation replays");
+    }
+
+    private static void dropsCorruptRecord(File file) throws IOException {
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            journal.appendPut(alarm(1, "07:00", "kept", "Standard"));
+            journal.appendPut(alarm(2, "07:01", "flipped", "Standard"));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 2);
+            raf.write(raf.read() ^ 0x40);
+        }
+        Map<Long, AlarmItem> alarms = replay(file);
+        Check.equal(1, alarms.size(), "record with a bad checksum dropped");
+        Check.that(alarms.containsKey(1L), "earlier record kept");
+    }
+
+    private static void replayStress(File file) throws IOException {
+        int records = 200_000;
+        long start = System.nanoTime();
+        try (AlarmJournal journal = new AlarmJournal(file, Integer.MAX_VALUE, 0)) {
+            for (int i = 0; i < records; i++) {
+                journal.appendPut(alarm(i % 10_000 + 1, "07:00", "Alarm " + i, "Standard"));
+            }
+            journal.sync();
+        }
+        long appended = System.nanoTime();
+        Map<Long, AlarmItem> alarms = replay(file);
+        long replayed = System.nanoTime();
+        Check.equal(10_000, alarms.size(), "distinct alarms after stress replay");
+        System.out.println("AlarmJournalTest: " + records + " records appended in "
+                + (appended - start) / 1_000_000 + " ms, replayed in " + (replayed - appended) / 1_000_000 + " ms");
+    }
+
+    private static Map<Long, AlarmItem> replay(File file) throws IOException {
+        Map<Long, AlarmItem> alarms = new LinkedHashMap<>();
+        try (AlarmJournal journal = new AlarmJournal(file, 1, 0)) {
+            journal.replay(into(alarms));
+        }
+        return alarms;
+    }
+
+    private static AlarmJournal.Replay into(Map<Long, AlarmItem> alarms) {
+        return new AlarmJournal.Replay() {
+            @Override
+            public void put(AlarmItem alarm) {
+                alarms.put(alarm.getId(), alarm);
+            }
+
+            @Override
+            public void remove(long id) {
+                alarms.remove(id);
+            }
+        };
+    }
+
+    private static AlarmItem alarm(long id, String time, String message, String sound) {
+        AlarmItem alarm = new AlarmItem(time, message, sound, 5, false);
+        alarm.setId(id);
+        return alarm;
+    }
+}
\ No newline at end of file
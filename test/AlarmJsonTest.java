@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoding and decoding rules of {@link AlarmJson}, its limits on hostile
+ * input, and a timed encode and decode of a large alarm list.
+ */
+public class AlarmJsonTest {
+    public static void main(String[] args) throws IOException {
+        roundTrips();
+        appliesDefaultsAndSkipsUnknownFields();
+        rejectsInvalidInput();
+        capsNesting();
+        throughput();
+        Check.passed(AlarmJsonTest.class);
+    }
+
+    private static void roundTrips() throws IOException {
+        AlarmItem alarm = new AlarmItem("06:05", "Quote \" slash \\ tab \t bell \u0007 \u00e9", null, 10, true);
+        alarm.setId(42);
+        alarm.setEnabled(false);
+        StringWriter out = new StringWriter();
+        AlarmJson.writeAlarm(out, alarm);
+        Check.that(out.toString().contains("\\u0007"), "control characters escaped: " + out);
+
+        AlarmItem read = AlarmJson.readAlarm(new StringReader(out.toString()));
+        Check.equal(42L, read.getId(), "id");
+        Check.equal("06:05", read.getTime(), "time");
+        Check.equal(alarm.getMessage(), read.getMessage(), "message");
+        Check.equal(10, read.getSnooze(), "snooze");
+        Check.that(read.isRepeatDaily(), "repeat");
+        Check.that(!read.isEnabled(), "active");
+    }
+
+    private static void appliesDefaultsAndSkipsUnknownFields() throws IOException {
+        AlarmItem alarm = AlarmJson.readAlarm(new StringReader(
+                " { \"extra\" : {\"a\": [1, -2.5e3, true, null, {\"b\": \"c\"}]}, \"time\": \"23:59\", \"sound\": null } "));
+        Check.equal("23:59", alarm.getTime(), "time after skipped field");
+        Check.equal("", alarm.getMessage(), "default message");
+        Check.equal("Standard", alarm.getSoundType(), "default sound matches the desktop apps");
+        Check.that(alarm.isEnabled(), "active by default");
+        Check.equal(0L, alarm.getId(), "no id");
+    }
+
+    private static void rejectsInvalidInput() {
+        String[] bodies = {
+            "",
+            "[]",
+            "{\"time\": \"7:00\"}",
+            "{\"time\": \"24:00\"}",
+            "{}",
+            "{\"time\": \"07:00\"} trailing",
+            "{\"time\": \"07:00\", \"snooze\": 1.5}",
+            "{\"time\": \"07:00\", \"id\": 12345678901234567890}",
+            "{\"time\": \"07:00\", \"message\": \"unterminated}",
+            "{\"time\": \"07:00\", \"message\": \"" + "x".repeat(8193) + "\"}",
+            "{\"time\": \"07:00\", \"repeat\": yes}",
+        };
+        for (String body : bodies) {
+            Check.fails(AlarmJson.JsonException.class, () -> AlarmJson.readAlarm(new StringReader(body)),
+                    "reject " + (body.length() > 60 ? body.substring(0, 60) + "..." : body));
+        }
+    }
+
+    // 200k brackets used to overflow the stack in skipValue
+    private static void capsNesting() throws IOException {
+        String deep = "{\"x\": " + "[".repeat(200_000) + "]".repeat(200_000) + ", \"time\": \"07:00\"}";
+        AlarmJson.JsonException e = Check.fails(AlarmJson.JsonException.class,
+                () -> AlarmJson.readAlarm(new StringReader(deep)), "deeply nested unknown field");
+        Check.that(e.getMessage().contains("Nesting"), "nesting error message: " + e.getMessage());
+
+        String allowed = "{\"x\": " + "[".repeat(63) + "]".repeat(63) + ", \"time\": \"07:00\"}";
+        Check.equal("07:00", AlarmJson.readAlarm(new StringReader(allowed)).getTime(), "nesting within the limit");
+    }
+
+    private static void throughput() throws IOException {
+        int count = 100_000;
+        List<AlarmItem> alarms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AlarmItem alarm = new AlarmItem(String.format("%02d:%02d", i / 60 % 24, i % 60), "Alarm " + i, "Pulse", 5, i % 2 == 0);
+            alarm.setId(i + 1);
+            alarms.add(alarm);
+        }
+        long start = System.nanoTime();
+        StringWriter out = new StringWriter(count * 100);
+        AlarmJson.writeAlarms(out, alarms);
+        long written = System.nanoTime();
+        String[] objects = out.toString().substring(1, out.getBuffer().length() - 1).split("(?<=\\}),(?=\\{)");
+        long split = System.nanoTime();
+        for (String object : objects) {
+            AlarmJson.readAlarm(new StringReader(object));
+        }
+        long read = System.nanoTime();
+        Check.equal(count, objects.length, "objects written");
+        System.out.println("AlarmJsonTest: " + count + " alarms written in " + (written - start) / 1_000_000
+                + " ms, read in " + (read - split) / 1_000_000 + " ms");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AlarmManager} in both dispatch modes: an alarm set for the next
+ * minute goes off within a second of it, the sound starts without the
+ * manager's lock held so alarms can be added and removed while it rings,
+ * and the lateness lands in the manager's histogram. Waits for the next
+ * minute boundary, so it takes up to a minute.
+ */
+public class AlarmManagerTest {
+    private static final double MAX_LATENESS_MILLIS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        LocalTime nextMinute = LocalTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        Ringing tick = start(AlarmManager.DispatchMode.MINUTE_TICK, nextMinute);
+        Ringing nextFire = start(AlarmManager.DispatchMode.NEXT_FIRE, nextMinute);
+        try {
+            tick.check();
+            nextFire.check();
+        } finally {
+            tick.shutdown();
+            nextFire.shutdown();
+        }
+        System.out.printf("AlarmManagerTest: fired %.1f ms late with MINUTE_TICK, %.1f ms with NEXT_FIRE%n",
+                tick.manager.getMaxFireLatenessMillis(), nextFire.manager.getMaxFireLatenessMillis());
+        Check.passed(AlarmManagerTest.class);
+    }
+
+    private static Ringing start(AlarmManager.DispatchMode mode, LocalTime time) {
+        BlockingPlayer player = new BlockingPlayer();
+        AlarmManager manager = new AlarmManager(mode, player);
+        player.manager = manager;
+        Alarm alarm = new Alarm(time, mode + " alarm", "none.wav");
+        manager.addAlarm(alarm);
+        return new Ringing(mode, manager, player, alarm);
+    }
+
+    private static final class Ringing {
+        final AlarmManager.DispatchMode mode;
+        final AlarmManager manager;
+        final BlockingPlayer player;
+        final Alarm alarm;
+
+        Ringing(AlarmManager.DispatchMode mode, AlarmManager manager, BlockingPlayer player, Alarm alarm) {
+            this.mode = mode;
+            this.manager = manager;
+            this.player = player;
+            this.alarm = alarm;
+        }
+
+        void check() throws Exception {
+            Check.that(player.playing.await(75, TimeUnit.SECONDS), mode + ": alarm went off");
+            Check.that(!player.lockHeld, mode + ": sound started with the manager's lock held");
+
+            // The scheduler thread is still inside playSound
+            CompletableFuture<Void> changes = CompletableFuture.runAsync(() -> {
+                Alarm other = new Alarm(LocalTime.of(3, 0), "Other", "none.wav");
+                long id = manager.addAlarm(other);
+                Check.equal(other, manager.removeAlarm(id), mode + ": removed while ringing");
+            });
+            changes.get(5, TimeUnit.SECONDS);
+            player.release.countDown();
+
+            Check.equal(1L, manager.getFiredCount(), mode + ": fired count");
+            double late = manager.getMaxFireLatenessMillis();
+            Check.that(late >= 0 && late < MAX_LATENESS_MILLIS, mode + ": fired " + late + " ms late");
+            Check.that(manager.getFireLatenessMillisAtPercentile(99) <= late * 1.02, mode + ": p99 within max");
+            // Switched off once playSound returns
+            for (int i = 0; i < 500 && alarm.isActive(); i++) {
+                Thread.sleep(10);
+            }
+            Check.that(!alarm.isActive(), mode + ": one-shot alarm switched off");
+        }
+
+        void shutdown() {
+            player.release.countDown();
+            long start = System.nanoTime();
+            manager.shutdown();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            Check.that(millis < 5000, mode + ": shutdown waited " + millis + " ms for the next tick");
+        }
+    }
+
+    // Holds the scheduler thread in playSound until released
+    private static final class BlockingPlayer extends SoundPlayer {
+        final CountDownLatch playing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile AlarmManager manager;
+        volatile boolean lockHeld;
+
+        @Override
+        public void playSound(String soundFile, boolean loop) {
+            lockHeld = Thread.holdsLock(manager);
+            playing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void prewarm(String soundFile) {
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link AlarmRegistry}: registration order, and a stress run of writer
+ * threads adding and removing a shared pool of alarms while a checker
+ * thread reads snapshots and looks alarms up, as AlarmManager's scheduler
+ * does. Must sustain at least 100k mutations per second.
+ */
+public class AlarmRegistryTest {
+    private static final int WRITERS = 4;
+    private static final int POOL = 10_000;
+    private static final long RUN_MILLIS = 2_000;
+    private static final double MIN_MUTATIONS_PER_SECOND = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        keepsRegistrationOrder();
+        stress();
+        Check.passed(AlarmRegistryTest.class);
+    }
+
+    private static void keepsRegistrationOrder() {
+        AlarmRegistry<String> registry = new AlarmRegistry<>();
+        long a = registry.add("a");
+        long b = registry.add("b");
+        long c = registry.add("c");
+        Check.equal(b, registry.add("b"), "adding again keeps the id");
+        Check.equal(List.of("a", "b", "c"), registry.snapshot(), "registration order");
+        Check.that(registry.snapshot() == registry.snapshot(), "snapshot reused until a change");
+
+        Check.that(registry.remove("b"), "remove by alarm");
+        Check.equal("c", registry.removeById(c), "remove by id");
+        long again = registry.add("b");
+        Check.that(again > c, "re-added alarm gets a new, later id");
+        Check.equal(List.of("a", "b"), registry.snapshot(), "re-added alarm goes last");
+        Check.equal(a, registry.idOf("a"), "id of a kept alarm");
+        Check.equal(-1L, registry.idOf("c"), "id of a removed alarm");
+    }
+
+    private static void stress() throws Exception {
+        AlarmRegistry<Object> registry = new AlarmRegistry<>();
+        Object[] pool = new Object[POOL];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Object();
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong mutations = new AtomicLong();
+        AtomicLong snapshots = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while (running.get()) {
+                    // Writers share the pool, so the same alarm is added and removed concurrently
+                    Object alarm = pool[random.nextInt(pool.length)];
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            registry.add(alarm);
+                            break;
+                        case 1:
+                            registry.remove(alarm);
+                            break;
+                        default:
+                            long id = registry.idOf(alarm);
+                            if (id >= 0) {
+                                registry.removeById(id);
+                            } else {
+                                registry.add(alarm);
+                            }
+                    }
+                    done++;
+                }
+                mutations.addAndGet(done);
+            }, "registry-writer-" + w));
+        }
+        threads.add(new Thread(() -> {
+            while (running.get()) {
+                List<Object> snapshot = registry.snapshot();
+                Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Object alarm : snapshot) {
+                    Check.that(seen.add(alarm), "alarm listed twice in a snapshot");
+                    long id = registry.idOf(alarm);
+                    Object found = id < 0 ? null : registry.get(id);
+                    Check.that(found == null || found == alarm, "id maps to another alarm");
+                }
+                snapshots.incrementAndGet();
+            }
+        }, "registry-checker"));
+
+        for (Thread thread : threads) {
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                failure.compareAndSet(null, e);
+                running.set(false);
+            });
+            thread.start();
+        }
+        long start = System.nanoTime();
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failure.get() != null) {
+            throw new AssertionError("stress thread failed", failure.get());
+        }
+
+        // Quiet now: ids, alarms and the snapshot must all agree
+        List<Object> snapshot = registry.snapshot();
+        Check.equal(registry.size(), snapshot.size(), "snapshot size");
+        long previous = 0;
+        for (Object alarm : snapshot) {
+            long id = registry.idOf(alarm);
+            Check.that(id > previous, "snapshot in id order");
+            Check.that(registry.get(id) == alarm, "id of a listed alarm maps back to it");
+            previous = id;
+        }
+        int registered = 0;
+        for (Object alarm : pool) {
+            if (registry.contains(alarm)) {
+                registered++;
+                Check.that(registry.get(registry.idOf(alarm)) == alarm, "registered alarm is listed");
+            }
+        }
+        Check.equal(registered, registry.size(), "no listed alarm without an id");
+
+        double rate = mutations.get() / seconds;
+        System.out.printf("AlarmRegistryTest: %d threads, %.0f mutations/s with %d snapshots read%n",
+                WRITERS, rate, snapshots.get());
+        Check.that(rate >= MIN_MUTATIONS_PER_SECOND, "mutation rate " + Math.round(rate) + "/s");
+    }
+}
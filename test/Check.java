@@ -0,0 +1,41 @@
+/**
+ * Assertion helpers for the plain-Java checks in this directory. There is no
+ * test framework: each check is a class with a main method that throws on
+ * the first failed expectation, so the JVM exits non-zero.
+ */
+final class Check {
+    private Check() {
+    }
+
+    static void that(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError(what);
+        }
+    }
+
+    static void equal(Object expected, Object actual, String what) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(what + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    interface Code {
+        void run() throws Exception;
+    }
+
+    static <E extends Throwable> E fails(Class<E> type, Code code, String what) {
+        try {
+            code.run();
+        } catch (Throwable e) {
+            if (type.isInstance(e)) {
+                return type.cast(e);
+            }
+            throw new AssertionError(what + ": expected " + type.getSimpleName() + " but got " + e, e);
+        }
+        throw new AssertionError(what + ": expected " + type.getSimpleName());
+    }
+
+    static void passed(Class<?> check) {
+        System.out.println(check.getSimpleName() + ": OK");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * {@link ClockTickEngine}: the time text and minute of day through a whole
+ * day, and an allocation check. Once warmed up, a day of ticks through a
+ * {@link ClockFace} and an alarm check by minute of day must allocate next
+ * to nothing, measured with com.sun.management.ThreadMXBean.
+ */
+public class ClockTickEngineTest {
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    // A day of ticks; anything per tick would be megabytes
+    private static final long MAX_ALLOCATED_BYTES = 4 * 1024;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        ClockTickEngine clock = new ClockTickEngine(DateTimeFormatter.ISO_LOCAL_DATE);
+        new ClockFace(clock, new Font(Font.DIALOG, Font.PLAIN, 12), Color.BLACK);
+        int alarmMinute = 7 * 60 + 30;
+        int[] alarmHits = {0};
+        clock.addListener(c -> {
+            if (c.isMinuteChanged() && c.getMinuteOfDay() == alarmMinute) {
+                alarmHits[0]++;
+            }
+        });
+
+        long midnight = LocalDate.of(2026, 1, 5).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        clock.tick(midnight + 45_296_000L);
+        Check.equal("12:34:56", new String(clock.getTimeChars()), "time text");
+        Check.equal(12 * 60 + 34, clock.getMinuteOfDay(), "minute of day");
+        Check.equal("2026-01-05", clock.getDateText(), "date text");
+        clock.tick(midnight + 45_296_500L);
+        Check.that(!clock.isMinuteChanged() && !clock.isDayChanged(), "same second again");
+
+        // Warm up over a day, so the measured day runs compiled code
+        runDay(clock, midnight + SECONDS_PER_DAY * 1000L);
+        alarmHits[0] = 0;
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long startDay = midnight + 2 * SECONDS_PER_DAY * 1000L;
+        // The first tick of a day formats its date, which is allowed to allocate
+        clock.tick(startDay);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runDay(clock, startDay);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Check.equal(1, alarmHits[0], "alarm minute seen once a day");
+        System.out.println("ClockTickEngineTest: " + allocated + " bytes allocated over "
+                + SECONDS_PER_DAY + " ticks");
+        Check.that(allocated <= MAX_ALLOCATED_BYTES, "tick path allocated " + allocated + " bytes");
+        Check.passed(ClockTickEngineTest.class);
+    }
+
+    // Every second of the day starting at midnight, ticked twice like a coalescing timer might
+    private static void runDay(ClockTickEngine clock, long midnight) {
+        for (int second = 0; second < SECONDS_PER_DAY; second++) {
+            long now = midnight + second * 1000L;
+            clock.tick(now);
+            clock.tick(now + 500);
+            if (second % 3600 == 0) {
+                Check.that(clock.getSecondOfDay() == second, "second of day");
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * {@link DecodedSoundCache}: mixer samples are kept with their sound and
+ * count against the byte budget, evicting sounds when they do not fit.
+ */
+public class DecodedSoundCacheTest {
+    public static void main(String[] args) throws Exception {
+        File dir = Files.createTempDirectory("sound-cache").toFile();
+        try {
+            // One second at 8 kHz: 16 KB decoded, about 88 KB as 44.1 kHz mixer samples
+            File low = wav(new File(dir, "low.wav"), 8000f, 8000);
+            File other = wav(new File(dir, "other.wav"), 8000f, 6000);
+            DecodedSoundCache cache = new DecodedSoundCache(110 * 1024);
+
+            DecodedSoundCache.Sound sound = cache.get(low);
+            Check.equal(16_000L, cache.getUsedBytes(), "decoded bytes counted");
+            short[] samples = cache.getMixerSamples(sound);
+            Check.that(samples == cache.getMixerSamples(sound), "samples converted once");
+            Check.equal(16_000L + samples.length * 2L, cache.getUsedBytes(), "mixer samples counted");
+
+            // 16 + 88 + 12 KB is over the budget, so the least recently used sound goes
+            cache.get(other);
+            Check.equal(1L, cache.getEvictionCount(), "first sound evicted");
+            Check.equal(12_000L, cache.getUsedBytes(), "evicted sound's samples released");
+            Check.that(cache.getUsedBytes() <= cache.getBudgetBytes(), "within budget");
+
+            // A sound that is no longer cached still converts, but is not counted
+            DecodedSoundCache.Sound evicted = new DecodedSoundCache(1).get(low);
+            cache.getMixerSamples(evicted);
+            Check.equal(12_000L, cache.getUsedBytes(), "uncached sound not counted");
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+        Check.passed(DecodedSoundCacheTest.class);
+    }
+
+    private static File wav(File file, float sampleRate, int frames) throws Exception {
+        AudioFormat format = new AudioFormat(sampleRate, 16, 1, true, false);
+        byte[] pcm = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            short value = (short) (Math.sin(i * 2 * Math.PI * 440 / sampleRate) * 8000);
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, frames),
+                AudioFileFormat.Type.WAVE, file);
+        return file;
+    }
+}
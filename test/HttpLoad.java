@@ -0,0 +1,120 @@
+import com.alarmclock.metrics.LatencyHistogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load for the load checks in this directory. Each client
+ * sends its next request as soon as the last one is answered, first for a
+ * warm-up and then for the measured period. Latencies are recorded in
+ * microseconds. Requests are asynchronous, so thousands of clients need
+ * connections, not threads.
+ */
+final class HttpLoad {
+    private static final long MAX_LATENCY_MICROS = 60_000_000L;
+
+    static final class Result {
+        final long requests;
+        final long errors;
+        final String firstError;
+        final double seconds;
+        final LatencyHistogram micros;
+        final Map<Integer, Long> statuses;
+
+        Result(long requests, long errors, String firstError, double seconds, LatencyHistogram micros,
+               Map<Integer, Long> statuses) {
+            this.requests = requests;
+            this.errors = errors;
+            this.firstError = firstError;
+            this.seconds = seconds;
+            this.micros = micros;
+            this.statuses = statuses;
+        }
+
+        double requestsPerSecond() {
+            return requests / seconds;
+        }
+
+        double millisAtPercentile(double percentile) {
+            return micros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        // True if every measured response had this status and nothing failed
+        boolean allAnswered(int status) {
+            return errors == 0 && statuses.size() == 1 && statuses.containsKey(status);
+        }
+
+        String summary() {
+            return String.format("%,.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, statuses %s, %d errors",
+                    requestsPerSecond(), millisAtPercentile(50), millisAtPercentile(99), micros.getMax() / 1000.0,
+                    statuses, errors);
+        }
+    }
+
+    private HttpLoad() {
+    }
+
+    static Result run(HttpClient http, Supplier<HttpRequest> request, int clients, long warmupMillis, long measureMillis)
+            throws InterruptedException {
+        LatencyHistogram micros = new LatencyHistogram(MAX_LATENCY_MICROS);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicLong errors = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch stopped = new CountDownLatch(clients);
+
+        Runnable[] loops = new Runnable[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            loops[c] = () -> {
+                if (!running.get()) {
+                    stopped.countDown();
+                    return;
+                }
+                long start = System.nanoTime();
+                http.sendAsync(request.get(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                    if (measuring.get()) {
+                        micros.record((System.nanoTime() - start) / 1000);
+                        if (e != null) {
+                            errors.incrementAndGet();
+                            firstError.compareAndSet(null, e.toString());
+                        } else {
+                            statuses.computeIfAbsent(response.statusCode(), s -> new LongAdder()).increment();
+                        }
+                    }
+                    loops[client].run();
+                });
+            };
+        }
+        for (Runnable loop : loops) {
+            loop.run();
+        }
+
+        Thread.sleep(warmupMillis);
+        measuring.set(true);
+        long start = System.nanoTime();
+        Thread.sleep(measureMillis);
+        measuring.set(false);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        if (!stopped.await(60, TimeUnit.SECONDS)) {
+            System.err.println("Error stopping load: " + stopped.getCount() + " clients still waiting for a response");
+        }
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return new Result(micros.getCount(), errors.get(), firstError.get(), seconds, micros, counts);
+    }
+}
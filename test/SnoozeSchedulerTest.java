@@ -0,0 +1,129 @@
+import com.alarmclock.scheduling.AlarmTimingWheel;
+import com.alarmclock.scheduling.SnoozeScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snoozes as an overlay on the alarm wheel: they fire once and expire,
+ * chain up to the limit, never move the alarm itself, and stay O(1) to
+ * schedule and cancel at scale.
+ */
+public class SnoozeSchedulerTest {
+    public static void main(String[] args) {
+        firesOnceAndExpires();
+        chainsUpToTheLimit();
+        cancelStartsANewChain();
+        resnoozeReplacesPending();
+        wrapsPastMidnight();
+        leavesTheAlarmAlone();
+        rejectsBadArguments();
+        stress();
+        Check.passed(SnoozeSchedulerTest.class);
+    }
+
+    private static void firesOnceAndExpires() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>(3);
+        snoozes.advanceTo(419, s -> { });
+        Check.that(snoozes.snooze("a", 420, 5), "first snooze accepted");
+        Check.that(snoozes.isPending("a"), "pending after snooze");
+        List<String> fired = new ArrayList<>();
+        for (int minute = 420; minute <= 430; minute++) {
+            snoozes.advanceTo(minute, s -> fired.add(s.getAlarm() + "@" + s.getMinuteOfDay() + "#" + s.getCount()));
+        }
+        Check.equal(List.of("a@425#1"), fired, "fired once at the snooze minute");
+        Check.that(!snoozes.isPending("a"), "expired after firing");
+        Check.equal(0, snoozes.getPendingCount(), "nothing left on the wheel");
+        Check.equal(1, snoozes.get("a").getCount(), "chain remembered after expiry");
+    }
+
+    private static void chainsUpToTheLimit() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>(2);
+        Check.that(snoozes.snooze("a", 420, 5), "snooze 1");
+        Check.that(snoozes.snooze("a", 425, 5), "snooze 2");
+        Check.that(!snoozes.snooze("a", 430, 5), "snooze 3 refused");
+        Check.that(!snoozes.isPending("a"), "refused snooze leaves nothing pending");
+        Check.that(snoozes.snooze("b", 420, 5), "limit is per alarm");
+
+        SnoozeScheduler<String> none = new SnoozeScheduler<>(0);
+        Check.that(!none.snooze("a", 420, 5), "a limit of 0 disables snoozing");
+    }
+
+    private static void cancelStartsANewChain() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>(1);
+        Check.that(snoozes.snooze("a", 420, 5), "snooze");
+        Check.that(snoozes.cancel("a"), "cancel drops the pending snooze");
+        Check.that(!snoozes.cancel("a"), "second cancel is a no-op");
+        Check.that(snoozes.get("a") == null, "chain gone after cancel");
+        Check.that(snoozes.snooze("a", 440, 5), "dismiss resets the count");
+    }
+
+    private static void resnoozeReplacesPending() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>(5);
+        snoozes.advanceTo(419, s -> { });
+        snoozes.snooze("a", 420, 5);
+        snoozes.snooze("a", 421, 10);
+        Check.equal(1, snoozes.getPendingCount(), "one pending entry per alarm");
+        List<Integer> fired = new ArrayList<>();
+        for (int minute = 420; minute <= 435; minute++) {
+            snoozes.advanceTo(minute, s -> fired.add(s.getMinuteOfDay()));
+        }
+        Check.equal(List.of(431), fired, "only the latest snooze fires");
+    }
+
+    private static void wrapsPastMidnight() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>(3);
+        snoozes.snooze("a", 1438, 5);
+        Check.equal(3, snoozes.get("a").getMinuteOfDay(), "23:58 + 5 minutes is 00:03");
+        List<String> fired = new ArrayList<>();
+        snoozes.advanceTo(1438, s -> fired.add("early"));
+        for (int minute : new int[] {1439, 0, 1, 2, 3}) {
+            snoozes.advanceTo(minute, s -> fired.add(AlarmTimingWheel.formatMinuteOfDay(s.getMinuteOfDay())));
+        }
+        Check.equal(List.of("00:03"), fired, "fires after midnight");
+    }
+
+    // The old snooze rewrote the alarm's time; the overlay must not
+    private static void leavesTheAlarmAlone() {
+        AlarmItem alarm = new AlarmItem("07:00", "Daily", "Standard", 10, true);
+        AlarmTimingWheel<AlarmItem> wheel = new AlarmTimingWheel<>();
+        AlarmTimingWheel.Entry<AlarmItem> entry = wheel.schedule(alarm.getMinuteOfDay(), alarm);
+        SnoozeScheduler<AlarmItem> snoozes = new SnoozeScheduler<>(3);
+        snoozes.snooze(alarm, 420, alarm.getSnooze());
+        Check.equal("07:00", alarm.getTime(), "alarm time unchanged");
+        Check.equal(420, entry.getMinuteOfDay(), "base wheel entry unchanged");
+        Check.equal(430, snoozes.get(alarm).getMinuteOfDay(), "snooze sits beside the alarm");
+    }
+
+    private static void rejectsBadArguments() {
+        SnoozeScheduler<String> snoozes = new SnoozeScheduler<>();
+        Check.equal(SnoozeScheduler.DEFAULT_MAX_SNOOZES, snoozes.getMaxSnoozes(), "default limit");
+        Check.fails(IllegalArgumentException.class, () -> snoozes.snooze("a", 420, 0), "zero minutes");
+        Check.fails(IllegalArgumentException.class, () -> snoozes.snooze("a", 420, 1440), "a whole day");
+        Check.fails(IllegalArgumentException.class, () -> new SnoozeScheduler<String>(-1), "negative limit");
+    }
+
+    // 200k alarms snoozed, half cancelled, the rest fired; costs stay flat per operation
+    private static void stress() {
+        int alarms = 200_000;
+        SnoozeScheduler<Integer> snoozes = new SnoozeScheduler<>(3);
+        snoozes.advanceTo(0, s -> { });
+        long start = System.nanoTime();
+        for (int i = 0; i < alarms; i++) {
+            snoozes.snooze(i, 0, 1 + i % 30);
+        }
+        for (int i = 0; i < alarms; i += 2) {
+            snoozes.cancel(i);
+        }
+        long scheduled = System.nanoTime();
+        int[] fired = {0};
+        for (int minute = 1; minute <= 30; minute++) {
+            snoozes.advanceTo(minute, s -> fired[0]++);
+        }
+        long done = System.nanoTime();
+        Check.equal(alarms / 2, fired[0], "uncancelled snoozes fire");
+        Check.equal(0, snoozes.getPendingCount(), "all expired");
+        System.out.println("SnoozeSchedulerTest: " + alarms + " snoozes + " + alarms / 2 + " cancels in "
+                + (scheduled - start) / 1_000_000 + " ms, fired in " + (done - scheduled) / 1_000_000 + " ms");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request and resident memory for each way of starting the
+ * server. Each variant is started a few times; the check polls the URL
+ * until it answers, then reads the process's RSS and stops it. Variants
+ * are given as {@code label[@directory]=command}, with the command split on
+ * spaces. For the Spring Boot app after {@code mvn package} and the
+ * profiles in pom.xml:
+ *
+ * <pre>
+ * java -cp test-classes StartupTimeTest http://localhost:8080/api/alarms ^
+ *     "jar=java -jar target/alarm-clock-1.0.0.jar" ^
+ *     "fast=java -Dspring.profiles.active=fast -jar target/alarm-clock-1.0.0.jar" ^
+ *     "cds@target/cds=java -XX:SharedArchiveFile=alarm-clock.jsa -Dspring.profiles.active=fast -cp BOOT-INF/classes;BOOT-INF/lib/* com.alarmclock.AlarmClockApplication" ^
+ *     "aot=java -Dspring.aot.enabled=true -jar target/alarm-clock-1.0.0.jar" ^
+ *     "native=target/alarm-clock.exe"
+ * </pre>
+ *
+ * RSS comes from /proc on Linux and tasklist on Windows, and is reported
+ * as n/a elsewhere. run_tests.bat compiles this check but does not run it.
+ */
+public class StartupTimeTest {
+    private static final int ROUNDS = 3;
+    private static final long START_TIMEOUT_MILLIS = 120_000;
+    private static final long POLL_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        Check.that(args.length >= 2, "usage: StartupTimeTest <url> <label[@directory]=command>...");
+        URI url = URI.create(args[0]);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        System.out.printf("StartupTimeTest: %s, median of %d starts%n", url, ROUNDS);
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            Check.that(equals > 0, "variant without a command: " + args[i]);
+            String label = args[i].substring(0, equals);
+            File directory = null;
+            int at = label.indexOf('@');
+            if (at >= 0) {
+                directory = new File(label.substring(at + 1));
+                label = label.substring(0, at);
+            }
+            List<String> command = Arrays.asList(args[i].substring(equals + 1).trim().split("\\s+"));
+
+            List<Long> millis = new ArrayList<>();
+            List<Long> rssKilobytes = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                long[] measured = start(http, url, command, directory);
+                millis.add(measured[0]);
+                rssKilobytes.add(measured[1]);
+            }
+            long rss = median(rssKilobytes);
+            System.out.printf("  %-10s first request after %5d ms, RSS %s%n", label, median(millis),
+                    rss < 0 ? "n/a" : (rss / 1024) + " MB");
+        }
+        Check.passed(StartupTimeTest.class);
+    }
+
+    // {milliseconds to the first answer, RSS in KB or -1}
+    private static long[] start(HttpClient http, URI url, List<String> command, File directory) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        if (directory != null) {
+            builder.directory(directory);
+        }
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(1)).build();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new AssertionError("server exited with " + process.exitValue() + ": " + command);
+                }
+                Check.that(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(START_TIMEOUT_MILLIS),
+                        "no answer within " + START_TIMEOUT_MILLIS + " ms: " + command);
+                try {
+                    int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    Check.that(status < 500, "first request answered " + status + ": " + command);
+                    break;
+                } catch (IOException e) {
+                    // Not listening yet
+                    Thread.sleep(POLL_MILLIS);
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new long[] {millis, rssKilobytes(process.pid())};
+        } finally {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long rssKilobytes(long pid) throws Exception {
+        File status = new File("/proc/" + pid + "/status");
+        if (status.exists()) {
+            for (String line : Files.readAllLines(status.toPath())) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+            return -1;
+        }
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            // "java.exe","1234","Console","1","123,456 K"
+            Process tasklist = new ProcessBuilder("tasklist", "/fi", "PID eq " + pid, "/fo", "csv", "/nh").start();
+            String output = new String(tasklist.getInputStream().readAllBytes());
+            tasklist.waitFor();
+            String[] fields = output.trim().split("\",\"");
+            if (fields.length == 5) {
+                return Long.parseLong(fields[4].replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
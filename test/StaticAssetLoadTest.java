@@ -0,0 +1,57 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Requests per second and p99 latency for AlarmClockServer's static assets:
+ * app.js plain and gzip, a conditional GET that revalidates to 304, and the
+ * page itself. Needs the server running, so run_tests.bat compiles it but
+ * does not run it:
+ *
+ * <pre>
+ * run_alarm_web.bat
+ * java -cp test-classes StaticAssetLoadTest http://localhost:8080 32 10
+ * </pre>
+ *
+ * The arguments are the base URL, the number of keep-alive clients and the
+ * seconds measured per request type, after a quarter as long to warm up.
+ */
+public class StaticAssetLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        long measureMillis = (args.length > 2 ? Long.parseLong(args[2]) : 10) * 1000;
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        URI script = URI.create(base + "/app.js");
+
+        HttpResponse<Void> first = http.send(HttpRequest.newBuilder(script).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.discarding());
+        Check.equal(200, first.statusCode(), "app.js");
+        String eTag = first.headers().firstValue("ETag").orElse(null);
+        Check.that(eTag != null, "app.js has an ETag");
+
+        System.out.printf("StaticAssetLoadTest: %d clients, %d s per request type%n", clients, measureMillis / 1000);
+        measure(http, "app.js", 200, clients, measureMillis, HttpRequest.newBuilder(script).build());
+        measure(http, "app.js gzip", 200, clients, measureMillis,
+                HttpRequest.newBuilder(script).header("Accept-Encoding", "gzip").build());
+        measure(http, "app.js 304", 304, clients, measureMillis,
+                HttpRequest.newBuilder(script).header("Accept-Encoding", "gzip").header("If-None-Match", eTag).build());
+        measure(http, "page gzip", 200, clients, measureMillis,
+                HttpRequest.newBuilder(URI.create(base + "/")).header("Accept-Encoding", "gzip").build());
+        Check.passed(StaticAssetLoadTest.class);
+    }
+
+    private static void measure(HttpClient http, String name, int status, int clients, long measureMillis,
+                                HttpRequest request) throws InterruptedException {
+        HttpLoad.Result result = HttpLoad.run(http, () -> request, clients, measureMillis / 4, measureMillis);
+        System.out.printf("  %-12s %s%n", name, result.summary());
+        Check.that(result.allAnswered(status), name + " answered other than " + status
+                + (result.firstError != null ? ": " + result.firstError : ""));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * {@link ToneBank}: each sound type is rendered once and shared, unknown
+ * types play the standard tone, and a microbenchmark of what starting an
+ * alarm sound costs: rendering the tone cold, as every play did before the
+ * bank, looking up the rendered tone, and starting a mixer voice on it.
+ * The voice is only timed when the machine has an audio output line.
+ */
+public class ToneBankTest {
+    private static final int COLD_ROUNDS = 20;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int VOICES = 1_000;
+
+    public static void main(String[] args) {
+        rendersEachToneOnce();
+        benchmark();
+        Check.passed(ToneBankTest.class);
+    }
+
+    private static void rendersEachToneOnce() {
+        for (String soundType : ToneBank.SOUND_TYPES) {
+            short[] tone = ToneBank.tone(soundType);
+            Check.equal(3 * (int) AudioMixer.SAMPLE_RATE, tone.length, soundType + " frames");
+            Check.that(ToneBank.tone(soundType) == tone, soundType + " rendered once and shared");
+        }
+        Check.that(ToneBank.tone("Siren") == ToneBank.tone("Standard"), "unknown type plays Standard");
+        Check.that(ToneBank.tone(null) == ToneBank.tone("Standard"), "missing type plays Standard");
+    }
+
+    private static void benchmark() {
+        long coldNanos = Long.MAX_VALUE;
+        for (int round = 0; round < COLD_ROUNDS; round++) {
+            for (String soundType : ToneBank.SOUND_TYPES) {
+                long start = System.nanoTime();
+                byte[] pcm = ToneSynth.render(ToneBank.spec(soundType), AudioMixer.FORMAT, 3.0);
+                short[] samples = AudioMixer.toMixerSamples(pcm, AudioMixer.FORMAT);
+                coldNanos = Math.min(coldNanos, System.nanoTime() - start);
+                Check.that(samples.length > 0, "rendered samples");
+            }
+        }
+
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += ToneBank.tone(ToneBank.SOUND_TYPES[i & 3]).length;
+        }
+        double lookupNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+        Check.that(found > 0, "looked up tones");
+
+        String voice = "no audio output line, not measured";
+        AudioMixer mixer = AudioMixer.shared();
+        short[] tone = ToneBank.tone("Standard");
+        AudioMixer.Voice first = mixer.play(tone, 0f, false);
+        if (first != null) {
+            first.stop();
+            start = System.nanoTime();
+            for (int i = 0; i < VOICES; i++) {
+                AudioMixer.Voice silent = mixer.play(tone, 0f, false);
+                Check.that(silent != null, "voice started");
+                silent.stop();
+            }
+            voice = String.format("%.1f us", (System.nanoTime() - start) / 1e3 / VOICES);
+            mixer.stopAll();
+        }
+
+        System.out.printf("ToneBankTest: cold render %.2f ms, cached lookup %.0f ns, mixer voice start %s%n",
+                coldNanos / 1e6, lookupNanos, voice);
+        Check.that(lookupNanos * 100 < coldNanos, "cached lookup should be at least 100x cheaper than a render");
+    }
+}
@@ -0,0 +1,141 @@
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * {@link ToneSynth}: each built-in tone matches the Math.sin generators it
+ * replaced, 8-bit and 16-bit, mono and stereo, big and little endian agree
+ * with each other, and samples per second for each sound type before and
+ * after. The generators below are AlarmSoundPlayer's from before the tone
+ * bank, kept here as the baseline.
+ */
+public class ToneSynthTest {
+    private static final float SAMPLE_RATE = 44100f;
+    private static final double SECONDS = 3.0;
+    private static final int ROUNDS = 30;
+    private static final AudioFormat MONO_8 = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
+    private static final AudioFormat MONO_16 = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+    private static final AudioFormat STEREO_16 = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+    private static final AudioFormat STEREO_16_BE = new AudioFormat(SAMPLE_RATE, 16, 2, true, true);
+
+    public static void main(String[] args) {
+        matchesTheOldGenerators();
+        formatsAgree();
+        Check.fails(IllegalArgumentException.class,
+                () -> ToneSynth.render(ToneBank.spec("Standard"), new AudioFormat(SAMPLE_RATE, 24, 1, true, false), 1),
+                "24-bit output");
+        Check.fails(IllegalArgumentException.class,
+                () -> ToneSynth.render(ToneBank.spec("Standard"), new AudioFormat(SAMPLE_RATE, 8, 1, false, false), 1),
+                "unsigned output");
+        benchmark();
+        Check.passed(ToneSynthTest.class);
+    }
+
+    private static void matchesTheOldGenerators() {
+        for (String soundType : ToneBank.SOUND_TYPES) {
+            byte[] before = legacy(soundType);
+            byte[] after = ToneSynth.render(ToneBank.spec(soundType), MONO_8, SECONDS);
+            Check.equal(before.length, after.length, soundType + " length");
+            int worst = 0;
+            for (int i = 0; i < before.length; i++) {
+                worst = Math.max(worst, Math.abs(before[i] - after[i]));
+            }
+            Check.that(worst <= 1, soundType + " differs from the old generator by " + worst + " LSB");
+        }
+    }
+
+    private static void formatsAgree() {
+        for (String soundType : ToneBank.SOUND_TYPES) {
+            ToneSynth.Tone tone = ToneBank.spec(soundType);
+            byte[] mono8 = ToneSynth.render(tone, MONO_8, SECONDS);
+            byte[] mono16 = ToneSynth.render(tone, MONO_16, SECONDS);
+            byte[] stereo = ToneSynth.render(tone, STEREO_16, SECONDS);
+            byte[] stereoBigEndian = ToneSynth.render(tone, STEREO_16_BE, SECONDS);
+            Check.equal(mono8.length * 2, mono16.length, soundType + " 16-bit length");
+            Check.equal(mono16.length * 2, stereo.length, soundType + " stereo length");
+            for (int i = 0; i < mono8.length; i++) {
+                short sample = (short) ((mono16[2 * i + 1] << 8) | (mono16[2 * i] & 0xff));
+                Check.that(Math.abs(sample / 256.0 - mono8[i]) <= 1.5, soundType + " 16-bit sample " + i);
+                for (int b = 0; b < 2; b++) {
+                    Check.equal(mono16[2 * i + b], stereo[4 * i + b], soundType + " left channel " + i);
+                    Check.equal(mono16[2 * i + b], stereo[4 * i + 2 + b], soundType + " right channel " + i);
+                    Check.equal(stereo[4 * i + b], stereoBigEndian[4 * i + 1 - b], soundType + " byte order " + i);
+                }
+            }
+        }
+    }
+
+    // Best of ROUNDS renders per sound type, each side interleaved with the other so the JIT warms both
+    private static void benchmark() {
+        StringBuilder report = new StringBuilder();
+        for (String soundType : ToneBank.SOUND_TYPES) {
+            ToneSynth.Tone tone = ToneBank.spec(soundType);
+            long before = Long.MAX_VALUE;
+            long after = Long.MAX_VALUE;
+            long after16 = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                legacy(soundType);
+                before = Math.min(before, System.nanoTime() - start);
+                start = System.nanoTime();
+                ToneSynth.render(tone, MONO_8, SECONDS);
+                after = Math.min(after, System.nanoTime() - start);
+                start = System.nanoTime();
+                ToneSynth.render(tone, STEREO_16, SECONDS);
+                after16 = Math.min(after16, System.nanoTime() - start);
+            }
+            double samples = SECONDS * SAMPLE_RATE;
+            report.append(String.format("%n  %-10s %6.1f -> %6.1f M samples/s (%.1fx), 16-bit stereo %6.1f M frames/s",
+                    soundType, samples / before * 1e3, samples / after * 1e3, (double) before / after,
+                    samples / after16 * 1e3));
+            Check.that(after < before, soundType + " should render faster than the old generator");
+        }
+        System.out.println("ToneSynthTest: samples per second before -> after" + report);
+    }
+
+    private static byte[] legacy(String soundType) {
+        byte[] data = new byte[(int) (SECONDS * SAMPLE_RATE)];
+        switch (soundType) {
+            case "High Pitch":
+                generateTone(data, 1000, 0.5);
+                break;
+            case "Low Pitch":
+                generateTone(data, 200, 0.5);
+                break;
+            case "Pulse":
+                generatePulseTone(data, 500, 0.5);
+                break;
+            default:
+                generateAlarmTone(data, 440, 0.5);
+        }
+        return data;
+    }
+
+    private static void generateTone(byte[] data, double frequency, double amplitude) {
+        double period = SAMPLE_RATE / frequency;
+        for (int i = 0; i < data.length; i++) {
+            double angle = 2.0 * Math.PI * i / period;
+            data[i] = (byte) (Math.sin(angle) * amplitude * 127);
+        }
+    }
+
+    private static void generatePulseTone(byte[] data, double frequency, double amplitude) {
+        double period = SAMPLE_RATE / frequency;
+        double pulseFrequency = 2.0;
+        for (int i = 0; i < data.length; i++) {
+            double angle = 2.0 * Math.PI * i / period;
+            double pulseTime = i / (double) SAMPLE_RATE;
+            double pulseEnvelope = Math.sin(2 * Math.PI * pulseFrequency * pulseTime) > 0 ? 1.0 : 0.2;
+            data[i] = (byte) (Math.sin(angle) * amplitude * 127 * pulseEnvelope);
+        }
+    }
+
+    private static void generateAlarmTone(byte[] data, double frequency, double amplitude) {
+        double period = SAMPLE_RATE / frequency;
+        double beepFrequency = 4.0;
+        for (int i = 0; i < data.length; i++) {
+            double angle = 2.0 * Math.PI * i / period;
+            double beepTime = i / (double) SAMPLE_RATE;
+            double beepPattern = Math.sin(2 * Math.PI * beepFrequency * beepTime) > 0 ? 1.0 : 0.0;
+            data[i] = (byte) (Math.sin(angle) * amplitude * 127 * beepPattern);
+        }
+    }
+}
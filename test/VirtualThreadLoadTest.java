@@ -0,0 +1,58 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Throughput and p99 for 5k concurrent clients polling the alarm list, as
+ * app.js tabs do after every change, against servers started with and
+ * without virtual threads. Each target is written as label=url and is
+ * loaded in turn; results are compared with the first. Needs the servers
+ * running, so run_tests.bat compiles it but does not run it. For the
+ * Spring Boot app, on Java 21:
+ *
+ * <pre>
+ * java -jar target/alarm-clock-1.0.0.jar --server.port=8080
+ * java -Dspring.profiles.active=virtual -jar target/alarm-clock-1.0.0.jar --server.port=8081
+ * java -cp test-classes VirtualThreadLoadTest 5000 30 platform=http://localhost:8080/api/alarms virtual=http://localhost:8081/api/alarms
+ * </pre>
+ *
+ * The arguments are the number of clients, the seconds measured per target
+ * after a quarter as long to warm up, and the targets. The client machine
+ * needs a file descriptor per client.
+ */
+public class VirtualThreadLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Check.that(args.length >= 3, "usage: VirtualThreadLoadTest <clients> <seconds> <label=url>...");
+        int clients = Integer.parseInt(args[0]);
+        long measureMillis = Long.parseLong(args[1]) * 1000;
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        System.out.printf("VirtualThreadLoadTest: %d clients, %d s per target%n", clients, measureMillis / 1000);
+        HttpLoad.Result baseline = null;
+        for (int i = 2; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            Check.that(equals > 0, "target without a url: " + args[i]);
+            String label = args[i].substring(0, equals);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(args[i].substring(equals + 1)))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            HttpLoad.Result result = HttpLoad.run(http, () -> request, clients, measureMillis / 4, measureMillis);
+            String comparison = baseline == null ? "" : String.format(" (%.2fx throughput, %.2fx p99 of %s)",
+                    result.requestsPerSecond() / baseline.requestsPerSecond(),
+                    result.millisAtPercentile(99) / baseline.millisAtPercentile(99), args[2].substring(0, args[2].indexOf('=')));
+            System.out.printf("  %-10s %s%s%n", label, result.summary(), comparison);
+            Check.that(result.allAnswered(200), label + " answered other than 200"
+                    + (result.firstError != null ? ": " + result.firstError : ""));
+            if (baseline == null) {
+                baseline = result;
+            }
+        }
+        Check.passed(VirtualThreadLoadTest.class);
+    }
+}